@@ -0,0 +1,34 @@
+package com.backend.configuration;
+
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers PostgreSQL-specific functions so they can be used from JPA Criteria / Specifications.
+ *
+ * Registered through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ * - trgm_similar(a, b) renders the pg_trgm operator "a % b", which can use the GIN trigram index
+ * - similarity(a, b) is the pg_trgm similarity score between 0 and 1
+ * - bitand(a, b) renders the integer bitwise AND "a & b", used on product size masks
+ */
+public class PostgresFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        BasicType<Boolean> booleanType = types.resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = types.resolve(StandardBasicTypes.DOUBLE);
+        BasicType<Integer> integerType = types.resolve(StandardBasicTypes.INTEGER);
+
+        functionContributions.getFunctionRegistry()
+                .registerPattern("trgm_similar", "(?1 % ?2)", booleanType);
+        functionContributions.getFunctionRegistry()
+                .registerPattern("similarity", "similarity(?1, ?2)", doubleType);
+        functionContributions.getFunctionRegistry()
+                .registerPattern("bitand", "(?1 & ?2)", integerType);
+    }
+}
@@ -0,0 +1,13 @@
+package com.backend.configuration;
+
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs, e.g. the periodic rebuild of ProductRecommendationIndex.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,129 @@
+package com.backend.controller;
+
+import com.backend.dto.ProductBulkUpdateDTO;
+import com.backend.dto.ProductBulkUpdateResultDTO;
+import com.backend.dto.ProductEntityCacheStatsDTO;
+import com.backend.dto.ProductFilterCacheStatsDTO;
+import com.backend.dto.ProductQueryCoalescingStatsDTO;
+import com.backend.dto.ProductImportResultDTO;
+import com.backend.exception.UnauthorizedException;
+import com.backend.model.ProductImportFormat;
+import com.backend.service.ProductEntityCache;
+import com.backend.service.ProductFilterCache;
+import com.backend.service.ProductImportService;
+import com.backend.service.ProductQueryCoalescer;
+import com.backend.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+@Tag(name = "Admin Products", description = "Admin-only catalog maintenance, protected by the admin secret")
+public class AdminProductController {
+
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final ProductImportService productImportService;
+    private final ProductFilterCache productFilterCache;
+    private final ProductService productService;
+    private final ProductQueryCoalescer productQueryCoalescer;
+    private final ProductEntityCache productEntityCache;
+
+    @Value("${admin.secret}")
+    private String adminSecret;
+
+    @Operation(summary = "Bulk import products",
+            description = "Streams the request body and inserts products in batches. "
+                    + "Send application/x-ndjson (one product JSON object per line) or "
+                    + "text/csv (header: name,size,pet,color,price,img). "
+                    + "Invalid rows and names that already exist are reported per line and skipped.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import finished, see the error report for skipped rows"),
+                    @ApiResponse(responseCode = "400", description = "Malformed CSV header"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden — wrong or missing secret")
+            }
+    )
+    @PostMapping(value = "/import", consumes = {APPLICATION_NDJSON, TEXT_CSV})
+    public ResponseEntity<ProductImportResultDTO> importProducts(
+            @RequestParam String password,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        checkSecret(password);
+        ProductImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? ProductImportFormat.CSV
+                : ProductImportFormat.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    @Operation(summary = "Bulk update products",
+            description = "Applies one change (price multiplier or absolute price, and/or color) to every product "
+                    + "matching the filter with a single UPDATE statement. An empty filter matches the whole catalog.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Number of changed products"),
+                    @ApiResponse(responseCode = "400", description = "Missing filter, no change or conflicting changes"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden — wrong or missing secret")
+            }
+    )
+    @PatchMapping
+    public ResponseEntity<ProductBulkUpdateResultDTO> bulkUpdate(
+            @RequestParam String password,
+            @RequestBody ProductBulkUpdateDTO update) {
+        checkSecret(password);
+        return ResponseEntity.ok(productService.bulkUpdate(update));
+    }
+
+    @Operation(summary = "Filter cache statistics",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Hits, misses, evictions and invalidations since startup"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden — wrong or missing secret")
+            }
+    )
+    @GetMapping("/cache-stats")
+    public ResponseEntity<ProductFilterCacheStatsDTO> filterCacheStats(@RequestParam String password) {
+        checkSecret(password);
+        return ResponseEntity.ok(productFilterCache.stats());
+    }
+
+    @Operation(summary = "Query coalescing statistics",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Queries run and calls collapsed onto them since startup"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden — wrong or missing secret")
+            }
+    )
+    @GetMapping("/coalescing-stats")
+    public ResponseEntity<ProductQueryCoalescingStatsDTO> queryCoalescingStats(@RequestParam String password) {
+        checkSecret(password);
+        return ResponseEntity.ok(productQueryCoalescer.stats());
+    }
+
+    @Operation(summary = "Entity cache statistics",
+            description = "Hibernate second-level cache region of products, which serves loads by id "
+                    + "in cart, wishlist, checkout and product details.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Cached products, hits, misses and database loads since startup"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden — wrong or missing secret")
+            }
+    )
+    @GetMapping("/entity-cache-stats")
+    public ResponseEntity<ProductEntityCacheStatsDTO> entityCacheStats(@RequestParam String password) {
+        checkSecret(password);
+        return ResponseEntity.ok(productEntityCache.stats());
+    }
+
+    private void checkSecret(String password) {
+        if (password == null || !password.equals(adminSecret)) {
+            throw new UnauthorizedException("Forbidden");
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.backend.controller;
 
 
 import com.backend.configuration.AuthenticationHelper;
+import com.backend.dto.CartBatchRequestDTO;
+import com.backend.dto.CartBatchResponseDTO;
 import com.backend.dto.CartDTO;
 import com.backend.dto.CartItemResponseDTO;
 import com.backend.service.CartService;
@@ -101,6 +103,28 @@ public class CartController {
     }
 
 
+    @Operation(summary = "Apply several cart changes at once",
+            description = "Applies ADD, UPDATE and REMOVE operations in the given order in one transaction, "
+                    + "with the same rules as the single-item endpoints. Either all operations are applied or none. "
+                    + "Returns the whole cart afterwards with its total.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operations applied, resulting cart returned"),
+            @ApiResponse(responseCode = "400", description = "Empty or too large batch, incomplete operation or size not offered"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "A cart item belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Product or cart item not found")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<CartBatchResponseDTO> applyBatch(
+            @RequestBody CartBatchRequestDTO request,
+            Authentication authentication
+    ) {
+        Long userId = authenticationHelper.getUserId(authentication);
+        CartBatchResponseDTO cart = cartService.applyBatch(userId, request.getOperations());
+        return ResponseEntity.ok(cart);
+    }
+
+
     @Operation(summary = "Clear entire cart")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Cart cleared successfully"),
@@ -3,6 +3,7 @@ package com.backend.controller;
 
 import com.backend.dto.CommentDTO;
 import com.backend.service.CommentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -11,9 +12,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,6 +28,7 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final ObjectMapper objectMapper;
 
 
     @Operation(summary = "Get all comments for a specific product")
@@ -101,6 +105,18 @@ public class CommentController {
     }
 
 
+    @Operation(summary = "Stream all comments from all products as one JSON array",
+            description = "Same result as GET /api/comments, written row by row while it is read from the database.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "JSON array of comments")
+    })
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllComments() {
+        StreamingResponseBody body = JsonArrayStream.<CommentDTO>of(objectMapper, commentService::streamAllComments);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+
     @Operation(summary = "Get comment by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Comment retrieved successfully"),
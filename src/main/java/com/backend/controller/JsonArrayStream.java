@@ -0,0 +1,41 @@
+package com.backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a JSON array to the response element by element with a Jackson JsonGenerator.
+ *
+ * The producer pushes elements into the given sink while it reads them, each one is serialized
+ * right away and the generator flushes its buffer to the response as it fills up. The body is the
+ * same JSON array a List would produce, without ever holding the list.
+ */
+final class JsonArrayStream {
+
+    private JsonArrayStream() {
+    }
+
+    static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        return out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartArray();
+            producer.accept(element -> {
+                try {
+                    generator.writeObject(element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            // Closed only on success: if the producer fails before the first buffer is flushed,
+            // nothing has been written and the error can still be rendered as a normal error response
+            generator.close();
+        };
+    }
+}
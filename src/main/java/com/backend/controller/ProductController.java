@@ -1,22 +1,50 @@
 package com.backend.controller;
 
 
+import com.backend.dto.ProductBatchResponseDTO;
+import com.backend.dto.ProductChangesDTO;
+import com.backend.dto.ProductFacetsDTO;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.dto.ProductPageDTO;
 import com.backend.dto.ProductResponseDTO;
+import com.backend.dto.ProductSuggestionDTO;
 import com.backend.model.PetType;
+import com.backend.model.ProductSort;
+import com.backend.model.SearchMode;
 import com.backend.model.SizeType;
+import com.backend.service.CatalogHealth;
+import com.backend.service.CatalogResponseCache;
+import com.backend.service.CatalogVersion;
+import com.backend.service.ProductChangeService;
+import com.backend.service.ProductFilterKey;
+import com.backend.service.ProductPopularityService;
 import com.backend.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
@@ -25,36 +53,316 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogVersion catalogVersion;
+    private final ProductChangeService productChangeService;
+    private final ProductPopularityService productPopularityService;
+    private final ObjectMapper objectMapper;
+    private final CatalogResponseCache responseCache;
+    private final CatalogHealth catalogHealth;
 
 
-    @Operation(summary = "Filter products by size, pet type, color, and search query")
+    @Operation(summary = "Filter products by size, pet type, color, price range and search query")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of filtered products (may be empty if no matches)")
+            @ApiResponse(responseCode = "200", description = "List of filtered products (may be empty if no matches). "
+                    + "Carries X-Catalog-Stale-Seconds when served from memory while the database is unavailable",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid price range")
     })
     @GetMapping("/filter")
-    public ResponseEntity<List<ProductResponseDTO>> filterProducts(
+    public ResponseEntity<byte[]> filterProducts(
             @RequestParam(required = false) List<SizeType> size,
             @RequestParam(required = false) List<PetType> pet,
             @RequestParam(required = false) List<String> color,
             @Parameter(description = "Search query for product name (case-insensitive partial match)")
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) String search,
+            @Parameter(description = "CONTAINS (default) or SIMILAR for typo-tolerant trigram matching")
+            @RequestParam(required = false) SearchMode searchMode,
+            @Parameter(description = "Lowest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Sort key, unsorted when omitted. RELEVANCE ranks by similarity to search, "
+                    + "POPULARITY by recent sales (use direction=DESC for best sellers)")
+            @RequestParam(required = false) ProductSort sort,
+            @RequestParam(required = false) Sort.Direction direction,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        List<ProductResponseDTO> products = productService.findProducts(
-                size, pet, color, search
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .size(size)
+                .pet(pet)
+                .color(color)
+                .search(search)
+                .searchMode(searchMode)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        String resourceKey = ProductFilterKey.of(filter, sort, direction).canonical();
+        if (sort == ProductSort.POPULARITY) {
+            // Sales reorder the listing without changing the catalog version
+            resourceKey += ";ranking=" + productPopularityService.rankingVersion();
+        }
+        return cachedJson(resourceKey, ifNoneMatch, acceptEncoding,
+                () -> productService.findProducts(filter, sort, direction));
+    }
+
+
+    @Operation(summary = "Count products per size, pet type and color for the current filter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facet counts"),
+            @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid price range")
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDTO> getFacets(
+            @RequestParam(required = false) List<SizeType> size,
+            @RequestParam(required = false) List<PetType> pet,
+            @RequestParam(required = false) List<String> color,
+            @Parameter(description = "Search query for product name (case-insensitive partial match)")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "CONTAINS (default) or SIMILAR for typo-tolerant trigram matching")
+            @RequestParam(required = false) SearchMode searchMode,
+            @Parameter(description = "Lowest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .size(size)
+                .pet(pet)
+                .color(color)
+                .search(search)
+                .searchMode(searchMode)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        long version = catalogVersion.current();
+        String eTag = CatalogVersion.eTag(version, "facets:" + ProductFilterKey.of(filter, null, null).canonical());
+        if (CatalogVersion.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        ProductFacetsDTO facets = productService.getFacets(filter);
+        if (catalogVersion.current() != version) {
+            // The catalog changed while counting, the counts may belong to either version
+            return ResponseEntity.ok().body(facets);
+        }
+        return ResponseEntity.ok().eTag(eTag).body(facets);
+    }
+
+
+    @Operation(summary = "Stream all filtered products as one JSON array",
+            description = "Same result as /filter, written row by row while it is read from the database. "
+                    + "Memory use does not depend on the number of products, meant for exports and large listings.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "JSON array of filtered products"),
+            @ApiResponse(responseCode = "400", description = "Invalid price range")
+    })
+    @GetMapping("/filter/stream")
+    public ResponseEntity<StreamingResponseBody> streamFilteredProducts(
+            @RequestParam(required = false) List<SizeType> size,
+            @RequestParam(required = false) List<PetType> pet,
+            @RequestParam(required = false) List<String> color,
+            @Parameter(description = "Search query for product name (case-insensitive partial match)")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "CONTAINS (default) or SIMILAR for typo-tolerant trigram matching")
+            @RequestParam(required = false) SearchMode searchMode,
+            @Parameter(description = "Lowest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Sort key, unsorted when omitted. RELEVANCE ranks by similarity to search, "
+                    + "POPULARITY by recent sales (use direction=DESC for best sellers)")
+            @RequestParam(required = false) ProductSort sort,
+            @RequestParam(required = false) Sort.Direction direction
+    ) {
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .size(size)
+                .pet(pet)
+                .color(color)
+                .search(search)
+                .searchMode(searchMode)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+
+        StreamingResponseBody body = JsonArrayStream.<ProductResponseDTO>of(
+                objectMapper, sink -> productService.streamProducts(filter, sort, direction, sink)
         );
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+
+    @Operation(summary = "Filter products page by page using a keyset cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of filtered products"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, cursor or price range")
+    })
+    @GetMapping("/filter/page")
+    public ResponseEntity<ProductPageDTO> filterProductPage(
+            @RequestParam(required = false) List<SizeType> size,
+            @RequestParam(required = false) List<PetType> pet,
+            @RequestParam(required = false) List<String> color,
+            @Parameter(description = "Search query for product name (case-insensitive partial match)")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "CONTAINS (default) or SIMILAR for typo-tolerant trigram matching")
+            @RequestParam(required = false) SearchMode searchMode,
+            @Parameter(description = "Lowest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price to include (inclusive)")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Sort key, id when omitted")
+            @RequestParam(required = false) ProductSort sort,
+            @RequestParam(required = false) Sort.Direction direction,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Also return the total number of matching products")
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .size(size)
+                .pet(pet)
+                .color(color)
+                .search(search)
+                .searchMode(searchMode)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build();
+        ProductPageDTO page = productService.findProductPage(filter, sort, direction, limit, cursor, includeTotal);
+        return ResponseEntity.ok(page);
+    }
+
+
+    @Operation(summary = "Autocomplete product names",
+            description = "Products having a name word that starts with q, for the search box. "
+                    + "Served from memory, cheap enough to call on every keystroke.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Name completions (empty for a blank query)"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggest(
+            @Parameter(description = "Typed prefix, case-insensitive")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Maximum number of suggestions (1-20)")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.suggest(q, limit));
+    }
+
+
+    @Operation(summary = "Product changes since a sequence number",
+            description = "Delta sync for clients and peer nodes: every product create, update and delete "
+                    + "is recorded with an increasing sequence. Start with since=0, then pass lastSeq. "
+                    + "A RESET change means many products changed at once and the catalog must be re-fetched.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes after since, in sequence order"),
+            @ApiResponse(responseCode = "400", description = "Negative since or invalid limit")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesDTO> getChanges(
+            @Parameter(description = "Last sequence already applied by the caller")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes (1-1000)")
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        return ResponseEntity.ok(productChangeService.getChanges(since, limit));
+    }
+
+
+    @Operation(summary = "Stream product changes (Server-Sent Events)",
+            description = "Replays the changes after since and then pushes each change as soon as it is committed, "
+                    + "as product-change events with the sequence as event id. "
+                    + "Reconnecting clients resume from the Last-Event-ID header.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "400", description = "Negative since")
+    })
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @Parameter(description = "Last sequence already applied by the caller")
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        long from = since != null ? since : lastEventId != null ? lastEventId : 0L;
+        return productChangeService.subscribe(from);
+    }
+
+
+    @Operation(summary = "Get many products by ID in one call",
+            description = "Replaces N calls to /{id} from cart, wishlist and order screens. "
+                    + "Products are returned in the order of the ids, unknown ids are listed in missingIds.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found products and missing ids"),
+            @ApiResponse(responseCode = "400", description = "No ids or more than 200 ids")
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchResponseDTO> getProductsByIds(
+            @Parameter(description = "Comma-separated or repeated product ids (1-200)")
+            @RequestParam(required = false) List<Long> ids
+    ) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+
+    @Operation(summary = "Products frequently bought together with a product",
+            description = "Products that appear in the same orders most often, most frequent first. "
+                    + "Counted in memory from all orders, cheap enough for every product page view.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Related products, empty when there are none"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/{id}/frequently-bought-together")
+    public ResponseEntity<List<ProductResponseDTO>> getFrequentlyBoughtTogether(
+            @PathVariable Long id,
+            @Parameter(description = "Maximum number of products (1-20)")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.getFrequentlyBoughtTogether(id, limit));
+    }
+
+
+    @Operation(summary = "Products similar to a product",
+            description = "Products for the same pet ranked by size (same or neighbouring), color and price "
+                    + "distance, most similar first. Scored in memory without a database query.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Similar products, empty when there are none"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<ProductResponseDTO>> getSimilarProducts(
+            @PathVariable Long id,
+            @Parameter(description = "Maximum number of products (1-20)")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.getSimilarProducts(id, limit));
     }
 
 
     @Operation(summary = "Get product by ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "200", description = "Product found. Carries X-Catalog-Stale-Seconds "
+                    + "when served from memory while the database is unavailable",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ProductResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Catalog unchanged since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Product not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id) {
-        ProductResponseDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+    public ResponseEntity<byte[]> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return cachedJson("product:" + id, ifNoneMatch, acceptEncoding, () -> productService.getProductById(id));
     }
 
 
@@ -98,4 +406,64 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+
+    /**
+     * Answers a catalog read from CatalogResponseCache: 304 when the client's ETag is current,
+     * otherwise the stored JSON bytes, gzip-encoded when the client accepts it. On a miss the body
+     * is rendered once and stored. The gzip representation gets its own ETag, as strong validators
+     * must differ between content codings.
+     *
+     * The version is read once and the ETag derived from it. A body rendered while the version moved
+     * on may show either catalog state, so it is sent without an ETag and not stored.
+     */
+    private ResponseEntity<byte[]> cachedJson(String resourceKey, String ifNoneMatch, String acceptEncoding,
+                                              Supplier<Object> body) {
+        long version = catalogVersion.current();
+        String eTag = CatalogVersion.eTag(version, resourceKey);
+        String gzipETag = eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+        if (CatalogVersion.matches(ifNoneMatch, eTag) || CatalogVersion.matches(ifNoneMatch, gzipETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(CatalogVersion.matches(ifNoneMatch, eTag) ? eTag : gzipETag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        CatalogResponseCache.CachedResponse response = responseCache.get(resourceKey, version);
+        if (response == null) {
+            byte[] json = toJson(body.get());
+            if (catalogHealth.servesSnapshot()) {
+                // Answered from memory while the database is unavailable: neither cached nor validated
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .cacheControl(CacheControl.noStore())
+                        .header(CatalogHealth.STALE_HEADER, String.valueOf(catalogHealth.staleSeconds()))
+                        .body(json);
+            }
+            if (catalogVersion.current() != version) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .body(json);
+            }
+            response = responseCache.put(resourceKey, version, json);
+        }
+
+        boolean gzip = response.gzip() != null && CatalogResponseCache.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.eTag(gzipETag).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip());
+        }
+        return builder.eTag(eTag).body(response.json());
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
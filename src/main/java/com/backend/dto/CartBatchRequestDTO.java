@@ -0,0 +1,19 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cart changes applied together, in order, in one transaction")
+public class CartBatchRequestDTO {
+
+    @Schema(description = "Operations, applied in the given order")
+    private List<CartOperationDTO> operations;
+}
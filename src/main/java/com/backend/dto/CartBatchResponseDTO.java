@@ -0,0 +1,23 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cart after a batch of changes")
+public class CartBatchResponseDTO {
+
+    @Schema(description = "All cart items after the changes")
+    private List<CartItemResponseDTO> items;
+
+    @Schema(description = "Total price of the cart after the changes", example = "118.92")
+    private BigDecimal total;
+}
@@ -0,0 +1,30 @@
+package com.backend.dto;
+
+
+import com.backend.model.CartOperationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One change of a cart batch")
+public class CartOperationDTO {
+
+    @Schema(description = "Kind of change", example = "ADD")
+    private CartOperationType type;
+
+    @Schema(description = "Product to add, ADD only", example = "101")
+    private Long productId;
+
+    @Schema(description = "Cart line to change, UPDATE and REMOVE only", example = "1")
+    private Long cartId;
+
+    @Schema(description = "Quantity to add (ADD) or new quantity (UPDATE, 0 removes the line)", example = "2")
+    private Integer quantity;
+
+    @Schema(description = "Selected size for the product, ADD only", example = "M")
+    private String selectedSize;
+}
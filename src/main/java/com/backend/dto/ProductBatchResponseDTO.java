@@ -0,0 +1,22 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Products resolved by id in one call")
+public class ProductBatchResponseDTO {
+
+    @Schema(description = "Found products in the order of the requested ids, each id at most once")
+    private List<ProductResponseDTO> products;
+
+    @Schema(description = "Requested ids that do not exist", example = "[42]")
+    private List<Long> missingIds;
+}
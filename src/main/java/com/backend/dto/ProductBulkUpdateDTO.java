@@ -0,0 +1,29 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Change applied to every product matching the filter. "
+        + "Set priceMultiplier or price (not both) and/or color")
+public class ProductBulkUpdateDTO {
+
+    @Schema(description = "Products to change, the same criteria as /api/products/filter")
+    private ProductFilterDTO filter;
+
+    @Schema(description = "Factor applied to the current price, rounded to cents", example = "1.10")
+    private BigDecimal priceMultiplier;
+
+    @Schema(description = "New price for all matching products", example = "9.99")
+    private BigDecimal price;
+
+    @Schema(description = "New color for all matching products", example = "Red")
+    private String color;
+}
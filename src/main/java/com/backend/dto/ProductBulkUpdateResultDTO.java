@@ -0,0 +1,16 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk product update")
+public class ProductBulkUpdateResultDTO {
+
+    @Schema(description = "Number of products changed", example = "412")
+    private int updated;
+}
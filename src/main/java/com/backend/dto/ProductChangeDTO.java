@@ -0,0 +1,33 @@
+package com.backend.dto;
+
+
+import com.backend.model.ProductChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One recorded product change")
+public class ProductChangeDTO {
+
+    @Schema(description = "Sequence number, increases with every change", example = "1024")
+    private Long seq;
+
+    @Schema(description = "UPSERT, DELETE, or RESET when the whole catalog must be re-fetched", example = "UPSERT")
+    private ProductChangeType type;
+
+    @Schema(description = "Changed product, null for RESET", example = "101")
+    private Long productId;
+
+    @Schema(description = "Current product state for UPSERT; null when the product has been deleted since, "
+            + "a later DELETE change follows")
+    private ProductResponseDTO product;
+
+    @Schema(description = "When the change was recorded")
+    private LocalDateTime changedAt;
+}
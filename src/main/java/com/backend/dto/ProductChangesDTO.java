@@ -0,0 +1,25 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product changes after a sequence number")
+public class ProductChangesDTO {
+
+    @Schema(description = "Changes in sequence order")
+    private List<ProductChangeDTO> changes;
+
+    @Schema(description = "Pass as since on the next call", example = "1024")
+    private Long lastSeq;
+
+    @Schema(description = "True when more changes are available right away", example = "false")
+    private boolean hasMore;
+}
@@ -0,0 +1,32 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Statistics of the Hibernate second-level cache region for products")
+public class ProductEntityCacheStatsDTO {
+
+    @Schema(description = "Products held in the cache region", example = "1834")
+    private long size;
+
+    @Schema(description = "Loads by id answered from the cache", example = "48211")
+    private long hits;
+
+    @Schema(description = "Loads by id that found no cached copy", example = "1902")
+    private long misses;
+
+    @Schema(description = "Hits divided by lookups, 0 when there were no lookups", example = "0.96")
+    private double hitRate;
+
+    @Schema(description = "Products stored in the cache after a database load or a write", example = "2040")
+    private long puts;
+
+    @Schema(description = "Product loads that went to the database", example = "1902")
+    private long databaseLoads;
+}
@@ -0,0 +1,31 @@
+package com.backend.dto;
+
+
+import com.backend.model.PetType;
+import com.backend.model.SizeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product counts per filter value. Each attribute is counted with the other attributes' "
+        + "selections applied but not its own, i.e. the count shown next to each checkbox")
+public class ProductFacetsDTO {
+
+    @Schema(description = "Count per size", example = "{\"S\": 3, \"M\": 5}")
+    private Map<SizeType, Long> size;
+
+    @Schema(description = "Count per pet type", example = "{\"DOG\": 6, \"CAT\": 2}")
+    private Map<PetType, Long> pet;
+
+    @Schema(description = "Count per color", example = "{\"Red\": 4, \"Blue\": 1}")
+    private Map<String, Long> color;
+
+    @Schema(description = "Number of products matching the whole filter", example = "4")
+    private long total;
+}
@@ -0,0 +1,35 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Statistics of the product filter result cache")
+public class ProductFilterCacheStatsDTO {
+
+    @Schema(description = "Number of cached filter results", example = "87")
+    private int size;
+
+    @Schema(description = "Maximum number of cached filter results, 0 when the cache is disabled", example = "500")
+    private int maxEntries;
+
+    @Schema(description = "Lookups answered from the cache", example = "15230")
+    private long hits;
+
+    @Schema(description = "Lookups that had to query the catalog", example = "412")
+    private long misses;
+
+    @Schema(description = "Hits divided by lookups, 0 when there were no lookups", example = "0.97")
+    private double hitRate;
+
+    @Schema(description = "Entries dropped because the cache was full", example = "3")
+    private long evictions;
+
+    @Schema(description = "Entries dropped because a product change affected them", example = "25")
+    private long invalidations;
+}
@@ -0,0 +1,42 @@
+package com.backend.dto;
+
+
+import com.backend.model.PetType;
+import com.backend.model.SearchMode;
+import com.backend.model.SizeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product filter criteria. Values inside one attribute are OR-ed, attributes are AND-ed")
+public class ProductFilterDTO {
+
+    @Schema(description = "Sizes to include", example = "[\"S\", \"M\"]")
+    private List<SizeType> size;
+
+    @Schema(description = "Pet types to include", example = "[\"DOG\"]")
+    private List<PetType> pet;
+
+    @Schema(description = "Colors to include", example = "[\"Red\"]")
+    private List<String> color;
+
+    @Schema(description = "Search query for product name (case-insensitive partial match)", example = "toy")
+    private String search;
+
+    @Schema(description = "How search is matched: CONTAINS (substring) or SIMILAR (trigram similarity, typo tolerant)",
+            example = "CONTAINS")
+    private SearchMode searchMode;
+
+    @Schema(description = "Lowest price to include (inclusive)", example = "10.00")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Highest price to include (inclusive)", example = "49.99")
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,20 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A rejected import row")
+public class ProductImportErrorDTO {
+
+    @Schema(description = "Line number in the uploaded file (1-based)", example = "17")
+    private long line;
+
+    @Schema(description = "Why the row was rejected", example = "price must be greater than 0")
+    private String message;
+}
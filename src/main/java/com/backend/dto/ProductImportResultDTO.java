@@ -0,0 +1,25 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Summary of a bulk product import")
+public class ProductImportResultDTO {
+
+    @Schema(description = "Number of products inserted", example = "99870")
+    private long imported;
+
+    @Schema(description = "Number of rejected rows", example = "130")
+    private long failed;
+
+    @Schema(description = "Rejected rows, the list is capped and may be shorter than 'failed'")
+    private List<ProductImportErrorDTO> errors;
+}
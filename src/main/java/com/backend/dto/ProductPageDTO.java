@@ -0,0 +1,25 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of products and the cursor to request the next one")
+public class ProductPageDTO {
+
+    @Schema(description = "Products on this page")
+    private List<ProductResponseDTO> items;
+
+    @Schema(description = "Opaque cursor for the next page, null when this is the last page", example = "UFJJQ0U6QVNDOjE1Ojk5Ljk5")
+    private String nextCursor;
+
+    @Schema(description = "Total number of matching products, only present when includeTotal=true", example = "42")
+    private Long totalCount;
+}
@@ -0,0 +1,27 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Statistics of catalog query coalescing")
+public class ProductQueryCoalescingStatsDTO {
+
+    @Schema(description = "Queries actually run", example = "412")
+    private long executed;
+
+    @Schema(description = "Calls that waited for an identical query already running instead of running their own",
+            example = "9310")
+    private long coalesced;
+
+    @Schema(description = "Coalesced calls divided by all calls, 0 when there were no calls", example = "0.96")
+    private double coalescedRate;
+
+    @Schema(description = "Queries running right now", example = "2")
+    private int inFlight;
+}
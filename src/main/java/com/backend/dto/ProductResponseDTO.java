@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Getter
 @Setter
@@ -21,7 +22,7 @@ public class ProductResponseDTO {
     @Schema(description = "Name of the product", example = "Dog Toy")
     private String name;
 
-    @Schema(description = "Size of the product", example = "S")
+    @Schema(description = "Default size of the product", example = "S")
     private SizeType size;
 
     @Schema(description = "Type of pet the product is for", example = "DOG")
@@ -35,4 +36,14 @@ public class ProductResponseDTO {
 
     @Schema(description = "URL of the product image", example = "https://example.com/images/dog-toy.jpg")
     private String img;
+
+    @Schema(description = "All sizes the product is offered in, including the default one. "
+            + "An update without it keeps the current sizes", example = "[\"S\", \"M\"]")
+    private List<SizeType> sizes;
+
+    // Target of the JPA constructor expression in ProductRepositoryImpl, which selects the size mask
+    public ProductResponseDTO(Long id, String name, SizeType size, PetType pet, String color, BigDecimal price,
+                              String img, Integer sizeMask) {
+        this(id, name, size, pet, color, price, img, SizeType.fromMask(sizeMask));
+    }
 }
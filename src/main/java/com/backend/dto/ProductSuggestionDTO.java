@@ -0,0 +1,20 @@
+package com.backend.dto;
+
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Product name completion for the search box")
+public class ProductSuggestionDTO {
+
+    @Schema(description = "Product identifier", example = "101")
+    private Long id;
+
+    @Schema(description = "Full product name", example = "Dog Toy")
+    private String name;
+}
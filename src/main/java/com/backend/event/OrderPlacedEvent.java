@@ -0,0 +1,19 @@
+package com.backend.event;
+
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Published by OrderService when an order has been created.
+ * quantities maps each ordered product id to the number of units ordered.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderPlacedEvent {
+
+    private final Long orderId;
+    private final Map<Long, Integer> quantities;
+}
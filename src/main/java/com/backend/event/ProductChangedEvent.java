@@ -0,0 +1,39 @@
+package com.backend.event;
+
+
+import com.backend.model.Product;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by ProductService whenever a product is created, updated or deleted.
+ *
+ * Carries a detached copy of the product so listeners running after commit
+ * never touch a managed entity. BULK means many rows changed at once (e.g. an import)
+ * and listeners should reload or drop everything they derived from the catalog.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        UPSERTED, DELETED, BULK
+    }
+
+    private final ChangeType type;
+    private final Long productId;
+    private final Product product;
+
+    public static ProductChangedEvent upserted(Product product) {
+        return new ProductChangedEvent(ChangeType.UPSERTED, product.getId(), product.toBuilder().build());
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, null);
+    }
+
+    public static ProductChangedEvent bulk() {
+        return new ProductChangedEvent(ChangeType.BULK, null, null);
+    }
+}
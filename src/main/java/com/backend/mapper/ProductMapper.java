@@ -3,28 +3,42 @@ package com.backend.mapper;
 
 import com.backend.dto.ProductResponseDTO;
 import com.backend.model.Product;
+import com.backend.model.SizeType;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
 import java.util.List;
 
-@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE, imports = SizeType.class)
 public interface ProductMapper {
+    @Mapping(target = "sizes", expression = "java(SizeType.fromMask(product.getSizeMask()))")
     ProductResponseDTO toFilterDto(Product product);
 
     List<ProductResponseDTO> toFilterDtoList(List<Product> products);
 
+    // The default size is added to the mask by Product itself
+    @Mapping(target = "sizeMask", expression = "java(SizeType.maskOf(dto.getSizes()))")
     Product toEntity(ProductResponseDTO dto);
 
     /**
      * Updates existing Product entity from DTO.
      * Ignores the ID field to prevent overwriting.
      * Used for update operations where product already exists.
+     * Without sizes, as sent by clients that predate variants, the sizes offered so far are kept.
      *
      * @param dto the product DTO with updated values
      * @param product the existing product entity to update (modified in place)
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "sizeMask", source = "sizes", qualifiedByName = "sizeMask",
+            nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateProductFromDto(ProductResponseDTO dto, @MappingTarget Product product);
+
+    @Named("sizeMask")
+    default int sizeMask(List<SizeType> sizes) {
+        return SizeType.maskOf(sizes);
+    }
 }
@@ -0,0 +1,9 @@
+package com.backend.model;
+
+public enum CartOperationType {
+    // Adds quantity of a product in a size, merging into an existing line like POST /api/cart/add
+    ADD,
+    // Sets the quantity of a cart line, 0 or less removes it like PUT /api/cart/items/{cartId}
+    UPDATE,
+    REMOVE
+}
@@ -3,15 +3,35 @@ package com.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.SecondaryRow;
+
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "products")
+@SecondaryTable(
+        name = "product_variants",
+        pkJoinColumns = @PrimaryKeyJoinColumn(name = "product_id"),
+        foreignKey = @ForeignKey(
+                name = "fk_product_variants_product",
+                foreignKeyDefinition = "FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE"
+        )
+)
+@SecondaryRow(table = "product_variants", optional = false)
+@SQLRestriction("retired_at IS NULL")
+// Read-mostly: loads by id are served from the second-level cache (region limits in ehcache.xml).
+// Entity writes update it on commit, bulk and native statements on products evict the region
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Product {
 
     @Id
@@ -25,6 +45,10 @@ public class Product {
     @Column(name = "size", nullable = false)
     private SizeType size;
 
+    // Sizes the product is offered in, one bit per SizeType; size is the default one and always included
+    @Column(name = "size_mask", table = "product_variants", nullable = false)
+    private int sizeMask;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "pet", nullable = false)
     private PetType pet;
@@ -38,5 +62,26 @@ public class Product {
     @Column(name = "color")
     private String color;
 
+    // Written only by ProductPopularityService with SQL increments, never by entity updates.
+    // Only read from query results, so a lagging copy in the second-level cache does no harm
+    @ColumnDefault("0")
+    @Column(name = "popularity", nullable = false, insertable = false, updatable = false)
+    private double popularity;
+
+    // Set when the product is deleted. Retired rows are invisible to every entity query through
+    // @SQLRestriction and purged with their dependent rows by ProductRetirementService
+    @Column(name = "retired_at", insertable = false, updatable = false)
+    private LocalDateTime retiredAt;
+
+    public int getSizeMask() {
+        return size == null ? sizeMask : sizeMask | size.bit();
+    }
+
+    @PrePersist
+    @PreUpdate
+    void includeDefaultSize() {
+        sizeMask = getSizeMask();
+    }
+
 }
 
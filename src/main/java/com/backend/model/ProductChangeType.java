@@ -0,0 +1,8 @@
+package com.backend.model;
+
+public enum ProductChangeType {
+    UPSERT,
+    DELETE,
+    // Many products changed at once (bulk import); clients re-fetch the catalog
+    RESET
+}
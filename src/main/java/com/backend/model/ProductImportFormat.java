@@ -0,0 +1,5 @@
+package com.backend.model;
+
+public enum ProductImportFormat {
+    NDJSON, CSV
+}
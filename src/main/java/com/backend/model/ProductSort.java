@@ -0,0 +1,18 @@
+package com.backend.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ProductSort {
+    ID("id"),
+    PRICE("price"),
+    NAME("name"),
+    // Time-decayed sales score, see ProductPopularityService; use DESC for best sellers first
+    POPULARITY("popularity"),
+    // pg_trgm similarity to the search query, best match first; only meaningful with a search
+    RELEVANCE(null);
+
+    private final String property;
+}
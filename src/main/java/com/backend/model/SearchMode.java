@@ -0,0 +1,5 @@
+package com.backend.model;
+
+public enum SearchMode {
+    CONTAINS, SIMILAR
+}
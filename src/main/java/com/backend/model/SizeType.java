@@ -1,5 +1,45 @@
 package com.backend.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Product sizes. Sizes a product is offered in are stored as a bitmask in
+ * product_variants.size_mask, one bit per size at the position of its ordinal.
+ */
 public enum SizeType {
-    XS, S, M, L, XL
+    XS, S, M, L, XL;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * @return mask with the bits of the given sizes, 0 for null or empty; null entries are ignored
+     */
+    public static int maskOf(Collection<SizeType> sizes) {
+        int mask = 0;
+        if (sizes != null) {
+            for (SizeType size : sizes) {
+                if (size != null) {
+                    mask |= size.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return sizes whose bits are set, smallest first
+     */
+    public static List<SizeType> fromMask(int mask) {
+        List<SizeType> sizes = new ArrayList<>(Integer.bitCount(mask));
+        for (SizeType size : values()) {
+            if ((mask & size.bit()) != 0) {
+                sizes.add(size);
+            }
+        }
+        return sizes;
+    }
 }
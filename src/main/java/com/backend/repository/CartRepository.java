@@ -15,11 +15,12 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     /**
      * Retrieves all cart items for a specific user with products eagerly loaded.
      * Uses JOIN FETCH to avoid N+1 query problem.
+     * Items of retired products are left out, they are purged by ProductRetirementService.
      *
      * @param userId ID of the user
      * @return list of cart items with products
      */
-    @Query("SELECT c FROM Cart c JOIN FETCH c.product WHERE c.userId = :userId")
+    @Query("SELECT c FROM Cart c JOIN FETCH c.product p WHERE c.userId = :userId AND p.retiredAt IS NULL")
     List<Cart> findByUserIdWithProducts(@Param("userId") Long userId);
 
     /**
@@ -1,14 +1,33 @@
 package com.backend.repository;
 
 
+import com.backend.dto.CommentDTO;
 import com.backend.model.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByProductId(Long productId);
 
     List<Comment> findByUserId(Long userId);
+
+    /**
+     * All comments as DTOs, read from a cursor 500 rows at a time.
+     * DTOs are not managed, so the persistence context does not grow while the stream is consumed.
+     * Must be called inside a transaction and the stream must be closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.backend.dto.CommentDTO(c.id, c.productId, c.commentText, c.createdDate, c.userId) "
+            + "from Comment c order by c.id")
+    Stream<CommentDTO> streamAllAsDto();
 }
@@ -0,0 +1,19 @@
+package com.backend.repository;
+
+
+import com.backend.model.PetType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Number of products sharing one (size mask, pet, color) combination.
+ * Row type of the grouped facet query, instantiated through a JPA constructor expression.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductAttributeCount {
+    private Integer sizeMask;
+    private PetType pet;
+    private String color;
+    private Long count;
+}
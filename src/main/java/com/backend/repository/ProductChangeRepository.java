@@ -0,0 +1,13 @@
+package com.backend.repository;
+
+
+import com.backend.model.ProductChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    List<ProductChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+}
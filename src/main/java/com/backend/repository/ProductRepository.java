@@ -2,14 +2,36 @@ package com.backend.repository;
 
 
 import com.backend.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 
 public interface ProductRepository extends JpaRepository<Product, Long>,
-        JpaSpecificationExecutor<Product> {
+        JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
     // JpaSpecificationExecutor provides:
     // - findAll(Specification<T> spec)
     // - findOne(Specification<T> spec)
     // - count(Specification<T> spec)
     // - exists(Specification<T> spec)
+
+    /**
+     * Soft-deletes a product: from now on no entity query sees it.
+     * Native because the retired_at column is not writable through the entity. The statement
+     * declares the products table as its query space, so Hibernate evicts the Product cache region
+     * and no cached copy of the product outlives it.
+     *
+     * @return 1 when the product was retired, 0 when it does not exist or was retired already
+     */
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products"))
+    @Query(value = "UPDATE products SET retired_at = :retiredAt WHERE id = :id AND retired_at IS NULL",
+            nativeQuery = true)
+    int retire(@Param("id") Long id, @Param("retiredAt") LocalDateTime retiredAt);
 }
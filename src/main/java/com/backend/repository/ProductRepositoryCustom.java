@@ -0,0 +1,58 @@
+package com.backend.repository;
+
+
+import com.backend.dto.ProductResponseDTO;
+import com.backend.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Product queries that cannot be expressed through JpaSpecificationExecutor.
+ * Implemented by ProductRepositoryImpl with the Criteria API, so they accept the same
+ * Specification predicates as the rest of the catalog.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Counts products matching the specification, grouped by (size mask, pet, color).
+     * A single GROUP BY query; the result has at most size masks × pets × colors rows.
+     */
+    List<ProductAttributeCount> countByAttributes(Specification<Product> spec);
+
+    /**
+     * Selects matching products straight into ProductResponseDTO with a constructor expression.
+     * No entity is instantiated, registered in the persistence context or snapshotted for
+     * dirty checking, and no mapping pass is needed afterwards.
+     *
+     * @param sort applied unless unsorted; an ordering set by the specification itself is kept then
+     */
+    List<ProductResponseDTO> findDtos(Specification<Product> spec, Sort sort);
+
+    /**
+     * Streaming variant of {@link #findDtos(Specification, Sort)}: rows are fetched from the
+     * cursor fetchSize at a time while the stream is consumed. Must be called inside a transaction
+     * (the Postgres driver only uses a cursor when autocommit is off) and the stream must be closed.
+     */
+    Stream<ProductResponseDTO> streamDtos(Specification<Product> spec, Sort sort, int fetchSize);
+
+    /**
+     * Replaces JpaRepository.findAllById, which selects every id with an IN query. Products already
+     * in the persistence context or the second-level cache are taken from there and only the
+     * remaining ids are selected, in one statement. Missing and retired ids are left out.
+     */
+    List<Product> findAllById(Iterable<Long> ids);
+
+    /**
+     * Changes every product matching the specification with one UPDATE ... WHERE statement.
+     * Null arguments leave that column unchanged; priceMultiplier scales the current price.
+     * Pending changes are flushed before and the persistence context is cleared after the statement,
+     * so entities loaded earlier in the transaction must be read again.
+     *
+     * @return number of updated rows
+     */
+    int updateMatching(Specification<Product> spec, BigDecimal priceMultiplier, BigDecimal price, String color);
+}
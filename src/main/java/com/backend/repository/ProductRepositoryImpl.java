@@ -0,0 +1,133 @@
+package com.backend.repository;
+
+
+import com.backend.dto.ProductResponseDTO;
+import com.backend.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductAttributeCount> countByAttributes(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductAttributeCount> query = cb.createQuery(ProductAttributeCount.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.construct(
+                ProductAttributeCount.class,
+                root.get("sizeMask"), root.get("pet"), root.get("color"), cb.count(root)
+        ));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get("sizeMask"), root.get("pet"), root.get("color"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<ProductResponseDTO> findDtos(Specification<Product> spec, Sort sort) {
+        return entityManager.createQuery(dtoQuery(spec, sort)).getResultList();
+    }
+
+    @Override
+    public Stream<ProductResponseDTO> streamDtos(Specification<Product> spec, Sort sort, int fetchSize) {
+        return entityManager.createQuery(dtoQuery(spec, sort))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<ProductResponseDTO> dtoQuery(Specification<Product> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponseDTO> query = cb.createQuery(ProductResponseDTO.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(toDto(cb, root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        ids.forEach(distinct::add);
+        List<Product> products = entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(List.copyOf(distinct));
+        // Ids that do not exist (or are retired) come back as null entries
+        return products.stream().filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    @Transactional
+    public int updateMatching(Specification<Product> spec, BigDecimal priceMultiplier, BigDecimal price, String color) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = cb.createCriteriaUpdate(Product.class);
+        Root<Product> root = update.from(Product.class);
+
+        if (priceMultiplier != null) {
+            update.set(root.<BigDecimal>get("price"), cb.prod(root.<BigDecimal>get("price"), priceMultiplier));
+        }
+        if (price != null) {
+            update.set(root.<BigDecimal>get("price"), price);
+        }
+        if (color != null) {
+            update.set(root.<String>get("color"), color);
+        }
+        // Catalog specifications add predicates only, they never need the query
+        Predicate predicate = spec.toPredicate(root, null, cb);
+        if (predicate != null) {
+            update.where(predicate);
+        }
+
+        // Like @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    // Argument order must follow the ProductResponseDTO size mask constructor
+    private static CompoundSelection<ProductResponseDTO> toDto(CriteriaBuilder cb, Root<Product> root) {
+        return cb.construct(
+                ProductResponseDTO.class,
+                root.get("id"), root.get("name"), root.get("size"), root.get("pet"),
+                root.get("color"), root.get("price"), root.get("img"), root.get("sizeMask")
+        );
+    }
+}
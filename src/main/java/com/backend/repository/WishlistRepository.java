@@ -20,10 +20,12 @@ public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
      * - Without JOIN FETCH: 1 query for wishlist + N queries for products = N+1 queries
      * - With JOIN FETCH: 1 query total (all data loaded at once)
      *
+     * Items of retired products are left out, they are purged by ProductRetirementService.
+     *
      * @param userId the user ID
      * @return list of wishlist items with products loaded
      */
-    @Query("SELECT w FROM Wishlist w LEFT JOIN FETCH w.product WHERE w.userId = :userId")
+    @Query("SELECT w FROM Wishlist w JOIN FETCH w.product p WHERE w.userId = :userId AND p.retiredAt IS NULL")
     List<Wishlist> findByUserId(@Param("userId") Long userId);
 
     @Modifying
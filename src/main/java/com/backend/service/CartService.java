@@ -1,12 +1,17 @@
 package com.backend.service;
 
 
+import com.backend.dto.CartBatchResponseDTO;
 import com.backend.dto.CartItemResponseDTO;
+import com.backend.dto.CartOperationDTO;
+import com.backend.exception.InvalidRequestException;
 import com.backend.exception.ResourceNotFoundException;
 import com.backend.exception.UnauthorizedException;
 import com.backend.mapper.CartMapper;
 import com.backend.model.Cart;
+import com.backend.model.CartOperationType;
 import com.backend.model.Product;
+import com.backend.model.SizeType;
 import com.backend.repository.CartRepository;
 import com.backend.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +20,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -31,6 +36,12 @@ public class CartService {
     private static final String PRODUCT_NOT_FOUND = "Product not found";
     private static final String PRODUCT_NOT_FOUND_LOG = "Product not found with id: {}";
     private static final String CART_ITEM_NOT_FOUND = "Cart item not found";
+    private static final String SIZE_NOT_OFFERED = "Product is not available in size '%s'";
+    private static final String CART_ITEM_FORBIDDEN = "You are not allowed to access this cart item";
+    private static final String INVALID_BATCH_SIZE = "A cart batch must contain between 1 and %d operations";
+    private static final String INVALID_OPERATION = "Every operation needs a type: ADD with a productId and a quantity "
+            + "of at least 1, UPDATE with a cartId and a quantity, REMOVE with a cartId";
+    private static final int MAX_BATCH_OPERATIONS = 50;
 
 
     @Transactional(readOnly = true)
@@ -52,6 +63,7 @@ public class CartService {
                     log.error(PRODUCT_NOT_FOUND_LOG, productId);
                     return new ResourceNotFoundException(PRODUCT_NOT_FOUND);
                 });
+        selectedSize = offeredSize(product, selectedSize);
 
         Optional<Cart> existingCart = cartRepository.findByUserIdAndProductIdAndSelectedSize(
                 userId, productId, selectedSize
@@ -117,6 +129,68 @@ public class CartService {
         log.info("Removed cart item {} for user {}", cartId, userId);
     }
 
+    /**
+     * Applies add, update and remove operations in the given order, all or nothing. The cart is read
+     * once, and every product the batch needs, for new and existing lines, with one findAllById
+     * instead of a lookup per operation. Each operation sees the result of the ones before it:
+     * a line removed earlier cannot be updated, adding its product and size again brings it back.
+     *
+     * @return every line of the cart after the changes, and their total
+     */
+    @Transactional
+    public CartBatchResponseDTO applyBatch(Long userId, List<CartOperationDTO> operations) {
+        validateBatch(operations);
+        log.debug("Applying {} cart operations for user: {}", operations.size(), userId);
+
+        List<Cart> lines = new ArrayList<>(cartRepository.findByUserId(userId));
+        Map<Long, Cart> linesById = lines.stream().collect(Collectors.toMap(Cart::getId, line -> line));
+        checkCartIds(userId, operations, linesById.keySet());
+
+        Set<Long> productIds = new HashSet<>();
+        lines.forEach(line -> productIds.add(line.getProductId()));
+        operations.stream()
+                .filter(operation -> operation.getType() == CartOperationType.ADD)
+                .forEach(operation -> productIds.add(operation.getProductId()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+
+        Set<Cart> removed = new HashSet<>();
+        for (CartOperationDTO operation : operations) {
+            switch (operation.getType()) {
+                case ADD -> add(userId, operation, products, lines, removed);
+                case UPDATE -> {
+                    Cart line = liveLine(operation.getCartId(), linesById, removed);
+                    if (operation.getQuantity() <= 0) {
+                        removed.add(line);
+                    } else {
+                        line.setQuantity(operation.getQuantity());
+                    }
+                }
+                case REMOVE -> removed.add(liveLine(operation.getCartId(), linesById, removed));
+            }
+        }
+
+        // Quantity changes of loaded lines are flushed by dirty checking
+        List<Cart> kept = lines.stream().filter(line -> !removed.contains(line)).toList();
+        cartRepository.deleteAll(removed);
+        cartRepository.saveAll(kept.stream().filter(line -> line.getId() == null).toList());
+
+        // Lines of retired products are left out, like in getUserCart
+        List<CartItemResponseDTO> items = kept.stream()
+                .filter(line -> products.containsKey(line.getProductId()))
+                .map(line -> cartMapper.toDto(line, products.get(line.getProductId())))
+                .toList();
+        BigDecimal total = items.stream()
+                .map(CartItemResponseDTO::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        log.info("Applied {} cart operations for user {}: {} items, total {}", operations.size(), userId, items.size(), total);
+        return CartBatchResponseDTO.builder()
+                .items(items)
+                .total(total)
+                .build();
+    }
+
     @Transactional
     public void clearCart(Long userId) {
         log.debug("Clearing cart for user: {}", userId);
@@ -145,7 +219,100 @@ public class CartService {
     private void validateCartOwnership(Cart cart, Long userId, Long cartId) {
         if (!cart.getUserId().equals(userId)) {
             log.warn("Unauthorized access attempt: user {} tried to access cart item {}", userId, cartId);
-            throw new UnauthorizedException("You are not allowed to access this cart item");
+            throw new UnauthorizedException(CART_ITEM_FORBIDDEN);
+        }
+    }
+
+    private static void validateBatch(List<CartOperationDTO> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new InvalidRequestException(String.format(INVALID_BATCH_SIZE, MAX_BATCH_OPERATIONS));
+        }
+        for (CartOperationDTO operation : operations) {
+            boolean complete = operation != null && operation.getType() != null && switch (operation.getType()) {
+                case ADD -> operation.getProductId() != null && operation.getQuantity() != null && operation.getQuantity() >= 1;
+                case UPDATE -> operation.getCartId() != null && operation.getQuantity() != null;
+                case REMOVE -> operation.getCartId() != null;
+            };
+            if (!complete) {
+                throw new InvalidRequestException(INVALID_OPERATION);
+            }
+        }
+    }
+
+    /**
+     * Cart ids outside the user's cart fail the batch: with 403 when one belongs to another user,
+     * like validateCartOwnership, otherwise with 404.
+     */
+    private void checkCartIds(Long userId, List<CartOperationDTO> operations, Set<Long> ownIds) {
+        Set<Long> unknown = operations.stream()
+                .filter(operation -> operation.getType() != CartOperationType.ADD)
+                .map(CartOperationDTO::getCartId)
+                .filter(cartId -> !ownIds.contains(cartId))
+                .collect(Collectors.toSet());
+        if (unknown.isEmpty()) {
+            return;
+        }
+        if (!cartRepository.findAllById(unknown).isEmpty()) {
+            log.warn("Unauthorized access attempt: user {} tried to access cart items {}", userId, unknown);
+            throw new UnauthorizedException(CART_ITEM_FORBIDDEN);
+        }
+        log.error("Cart items not found with ids: {}", unknown);
+        throw new ResourceNotFoundException(CART_ITEM_NOT_FOUND);
+    }
+
+    // Merges into the line with the same product and size, like addToCart
+    private void add(Long userId, CartOperationDTO operation, Map<Long, Product> products, List<Cart> lines, Set<Cart> removed) {
+        Product product = products.get(operation.getProductId());
+        if (product == null) {
+            log.error(PRODUCT_NOT_FOUND_LOG, operation.getProductId());
+            throw new ResourceNotFoundException(PRODUCT_NOT_FOUND);
+        }
+        String selectedSize = offeredSize(product, operation.getSelectedSize());
+
+        Optional<Cart> existing = lines.stream()
+                .filter(line -> line.getProductId().equals(product.getId())
+                        && Objects.equals(line.getSelectedSize(), selectedSize))
+                .findFirst();
+        if (existing.isEmpty()) {
+            lines.add(Cart.builder()
+                    .userId(userId)
+                    .productId(product.getId())
+                    .quantity(operation.getQuantity())
+                    .selectedSize(selectedSize)
+                    .build());
+        } else if (removed.remove(existing.get())) {
+            // Reusing the removed row keeps the (user, product, size) index satisfied within one flush
+            existing.get().setQuantity(operation.getQuantity());
+        } else {
+            existing.get().setQuantity(existing.get().getQuantity() + operation.getQuantity());
+        }
+    }
+
+    private static Cart liveLine(Long cartId, Map<Long, Cart> linesById, Set<Cart> removed) {
+        Cart line = linesById.get(cartId);
+        if (removed.contains(line)) {
+            log.error("Cart item {} was already removed in this batch", cartId);
+            throw new ResourceNotFoundException(CART_ITEM_NOT_FOUND);
+        }
+        return line;
+    }
+
+    /**
+     * @return the selected size as a SizeType name, null when none was selected
+     * @throws InvalidRequestException when the product is not offered in that size
+     */
+    private static String offeredSize(Product product, String selectedSize) {
+        if (selectedSize == null || selectedSize.isBlank()) {
+            return null;
+        }
+        SizeType size = Arrays.stream(SizeType.values())
+                .filter(s -> s.name().equalsIgnoreCase(selectedSize.trim()))
+                .findFirst()
+                .orElse(null);
+        if (size == null || (product.getSizeMask() & size.bit()) == 0) {
+            log.warn("Product {} is not offered in size {}", product.getId(), selectedSize);
+            throw new InvalidRequestException(String.format(SIZE_NOT_OFFERED, selectedSize));
         }
+        return size.name();
     }
 }
@@ -0,0 +1,145 @@
+package com.backend.service;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker between catalog reads and the database.
+ *
+ * Catalog reads run through timed. A read that fails with a database error, including a
+ * connection the pool could not hand out, or that takes longer than
+ * app.catalog.degraded.latency-budget switches the catalog to degraded mode. While degraded,
+ * ProductService answers catalog reads from ProductCatalogIndex, the last known-good copy of the
+ * catalog, without touching the database, so requests no longer queue up on the connection pool.
+ *
+ * A probe query runs every app.catalog.degraded.probe-interval while degraded. Once it answers
+ * within the budget, degraded mode ends and the index is reconciled with the database in the
+ * background, in case the database lost or gained changes, e.g. in a failover. The reconciliation
+ * drops cached catalog results and moves CatalogVersion on, so nothing read during the outage is
+ * served or revalidated afterwards.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogHealth {
+
+    /**
+     * Response header with the number of seconds since the database last answered, set on
+     * catalog responses served from the in-memory snapshot.
+     */
+    public static final String STALE_HEADER = "X-Catalog-Stale-Seconds";
+
+    private static final String PROBE = "SELECT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductCatalogIndex catalogIndex;
+
+    @Value("${app.catalog.degraded.latency-budget:PT1S}")
+    private Duration latencyBudget = Duration.ofSeconds(1);
+
+    private Clock clock = Clock.systemUTC();
+
+    private Executor refreshExecutor = task -> Thread.ofVirtual().name("catalog-refresh").start(task);
+
+    // Null while the database is healthy
+    private volatile Instant degradedSince;
+
+    public boolean isDegraded() {
+        return degradedSince != null;
+    }
+
+    /**
+     * @return true when catalog reads are answered from the in-memory snapshot
+     */
+    public boolean servesSnapshot() {
+        return isDegraded() && catalogIndex.isReady();
+    }
+
+    /**
+     * @return whole seconds since the database last answered within the budget, 0 when healthy
+     */
+    public long staleSeconds() {
+        Instant since = degradedSince;
+        return since == null ? 0 : Duration.between(since, clock.instant()).toSeconds();
+    }
+
+    /**
+     * Runs a database read, switching to degraded mode when it fails or is over the latency budget.
+     * The result of a slow read is still returned, a failure is rethrown.
+     */
+    public <T> T timed(Supplier<T> read) {
+        long start = System.nanoTime();
+        try {
+            T result = read.get();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            if (elapsed.compareTo(latencyBudget) > 0) {
+                degrade("catalog read took " + elapsed.toMillis() + " ms");
+            }
+            return result;
+        } catch (DataAccessException | TransactionException e) {
+            degrade(e.getClass().getSimpleName() + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.degraded.probe-interval:PT5S}")
+    public void probe() {
+        if (!isDegraded()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.queryForObject(PROBE, Integer.class);
+        } catch (DataAccessException e) {
+            log.debug("Catalog database still unavailable: {}", e.getMessage());
+            return;
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        if (elapsed.compareTo(latencyBudget) > 0) {
+            log.debug("Catalog database still slow: probe took {} ms", elapsed.toMillis());
+            return;
+        }
+        recover();
+    }
+
+    private void degrade(String reason) {
+        synchronized (this) {
+            if (degradedSince != null) {
+                return;
+            }
+            degradedSince = clock.instant();
+        }
+        log.warn("Catalog switched to degraded mode ({}), serving the in-memory snapshot until the database "
+                + "answers within {} ms", reason, latencyBudget.toMillis());
+    }
+
+    private void recover() {
+        long staleSeconds = staleSeconds();
+        degradedSince = null;
+        log.info("Catalog database answers within budget again after {} s in degraded mode", staleSeconds);
+        if (catalogIndex.isReady()) {
+            refreshExecutor.execute(this::refreshSnapshot);
+        }
+    }
+
+    private void refreshSnapshot() {
+        try {
+            catalogIndex.reconcile();
+        } catch (RuntimeException e) {
+            log.error("Refreshing the catalog snapshot after degraded mode failed", e);
+        }
+    }
+}
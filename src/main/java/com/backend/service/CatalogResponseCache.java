@@ -0,0 +1,137 @@
+package com.backend.service;
+
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of finished catalog response bodies: UTF-8 JSON bytes plus a gzip copy made once at put time.
+ *
+ * A hit skips the query, the mapping and the serialization entirely; the controller hands the
+ * stored bytes to the response as they are. Entries are keyed by the canonical request and tagged
+ * with the CatalogVersion they were rendered at, an entry from an older version is dropped on
+ * lookup. The cache is an LRU bounded by the total number of stored bytes.
+ *
+ * Disabled with app.catalog.response-cache.max-bytes=0.
+ */
+@Slf4j
+@Component
+public class CatalogResponseCache {
+
+    // Smaller bodies fit in one packet anyway, compressing them only costs CPU
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    @Value("${app.catalog.response-cache.max-bytes:0}")
+    private DataSize maxBytes = DataSize.ofBytes(0);
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long storedBytes;
+
+    /**
+     * @param gzip gzip-compressed json, null when the body is too small to be worth compressing
+     */
+    public record CachedResponse(byte[] json, byte[] gzip) {
+
+        long size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    private record Entry(long version, CachedResponse response) {
+    }
+
+    public boolean isEnabled() {
+        return maxBytes.toBytes() > 0;
+    }
+
+    /**
+     * @return the body rendered for this key at the given catalog version, null on a miss
+     */
+    public synchronized CachedResponse get(String key, long version) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version() != version) {
+            entries.remove(key);
+            storedBytes -= entry.response().size();
+            return null;
+        }
+        return entry.response();
+    }
+
+    /**
+     * Stores a freshly rendered body and returns it together with its gzip variant.
+     * Bodies larger than the whole cache are returned without being stored.
+     */
+    public CachedResponse put(String key, long version, byte[] json) {
+        if (!isEnabled()) {
+            return new CachedResponse(json, null);
+        }
+        CachedResponse response = new CachedResponse(json, json.length >= MIN_GZIP_BYTES ? gzip(json) : null);
+        long limit = maxBytes.toBytes();
+        if (response.size() > limit) {
+            return response;
+        }
+
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(version, response));
+            if (previous != null) {
+                storedBytes -= previous.response().size();
+            }
+            storedBytes += response.size();
+
+            Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+            while (storedBytes > limit && leastRecentlyUsed.hasNext()) {
+                storedBytes -= leastRecentlyUsed.next().response().size();
+                leastRecentlyUsed.remove();
+            }
+        }
+        log.debug("Cached response {} ({} bytes, gzip {} bytes)", key, json.length,
+                response.gzip() == null ? "-" : response.gzip().length);
+        return response;
+    }
+
+    public synchronized long storedBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * @return true when the Accept-Encoding header lists gzip without refusing it with q=0
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
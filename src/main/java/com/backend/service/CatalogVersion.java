@@ -0,0 +1,80 @@
+package com.backend.service;
+
+
+import com.backend.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of the product catalog.
+ *
+ * Bumped after every committed product change and used to derive strong ETags
+ * for catalog responses. Starts from the current time so that versions keep
+ * increasing across restarts and a restarted node never reissues an old ETag.
+ */
+@Slf4j
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Runs after every other catalog listener. Until the index has applied the change and the
+     * caches have dropped what it affects, reads still see the old catalog and must be tagged with
+     * the old version; a new ETag on an old body would be answered with 304 until the next change.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        long newVersion = version.incrementAndGet();
+        log.debug("Catalog version bumped to {} after {} of product {}", newVersion, event.getType(), event.getProductId());
+    }
+
+    /**
+     * @return quoted strong ETag for the given resource at the current catalog version
+     */
+    public String eTag(String resourceKey) {
+        return eTag(current(), resourceKey);
+    }
+
+    /**
+     * @return quoted strong ETag for the given resource at the given catalog version, for callers
+     * that read the version once and must tag the body with the version it was rendered at
+     */
+    public static String eTag(long version, String resourceKey) {
+        return "\"" + version + "-" + Integer.toHexString(resourceKey.hashCode()) + "\"";
+    }
+
+    /**
+     * Evaluates an If-None-Match header against the current ETag.
+     * Supports "*", comma-separated lists and weak validators (W/"..."),
+     * which If-None-Match compares with the weak comparison function.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
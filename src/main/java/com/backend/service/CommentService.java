@@ -17,6 +17,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -121,6 +123,18 @@ public class CommentService {
         return comments;
     }
 
+    /**
+     * Passes every comment to the sink as it is read, ordered by id.
+     * Nothing is collected, so memory use does not depend on the number of comments.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllComments(Consumer<CommentDTO> sink) {
+        log.debug("Streaming all comments");
+        try (Stream<CommentDTO> comments = commentRepository.streamAllAsDto()) {
+            comments.forEach(sink);
+        }
+    }
+
     /**
      * Finds user by email or throws ResourceNotFoundException.
      */
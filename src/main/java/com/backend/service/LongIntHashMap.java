@@ -0,0 +1,84 @@
+package com.backend.service;
+
+
+/**
+ * Open-addressing hash map from positive long keys to int values, without boxing either.
+ *
+ * Keys and values live in two parallel arrays probed linearly; 0 marks a free slot, so keys must
+ * be positive (database ids are). Entries are never removed, which keeps probing simple.
+ * Not thread-safe, callers synchronize.
+ */
+final class LongIntHashMap {
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    int get(long key) {
+        int slot = find(keys, key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    /**
+     * Adds delta to the value of key, inserting it with value delta when absent.
+     */
+    void addTo(long key, int delta) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        int slot = find(keys, key);
+        if (keys[slot] == key) {
+            values[slot] += delta;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > keys.length * MAX_LOAD) {
+            grow();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    // Slot holding key, or the free slot where it would be inserted
+    private static int find(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                int target = find(keys, oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.backend.service;
 
 import com.backend.dto.OrderRequestDTO;
 import com.backend.dto.OrderResponseDTO;
+import com.backend.event.OrderPlacedEvent;
 import com.backend.exception.EmptyCartException;
 import com.backend.exception.ResourceNotFoundException;
 import com.backend.exception.UnauthorizedException;
@@ -14,6 +15,7 @@ import com.backend.repository.PaymentCardRepository;
 import com.backend.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,6 +37,7 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final PaymentCardRepository paymentCardRepository;
     private final OrderMapper orderMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String CART_EMPTY = "Cart is empty";
     private static final String PAYMENT_CARD_NOT_FOUND = "Payment card not found";
@@ -68,6 +71,7 @@ public class OrderService {
                 .map(Cart::getProductId)
                 .toList();
 
+        // Products cached by an earlier addToCart or checkout are not selected again
         List<Product> products = productRepository.findAllById(productIds);
 
         Map<Long, Product> productMap = products.stream()
@@ -114,6 +118,10 @@ public class OrderService {
 
         // Clear the user's cart after successful order creation
         cartRepository.deleteByUserId(userId);
+
+        Map<Long, Integer> quantities = cartItems.stream()
+                .collect(Collectors.toMap(Cart::getProductId, Cart::getQuantity, Integer::sum));
+        eventPublisher.publishEvent(new OrderPlacedEvent(order.getId(), quantities));
         log.info("Created order {} for user {}, cleared cart", order.getOrderNumber(), userId);
 
         return orderMapper.toResponseDTO(order);
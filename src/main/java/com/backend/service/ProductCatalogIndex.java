@@ -0,0 +1,570 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductFacetsDTO;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+import com.backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory catalog index for answering product filter queries without a database round trip.
+ *
+ * Every product occupies a slot. One BitSet per SizeType, per PetType and per
+ * dictionary-encoded color marks the slots having that value (a product is set in the bitmap of
+ * every size it is offered in), so a filter becomes:
+ * - OR of the bitmaps inside one attribute (size=M OR size=L)
+ * - AND across attributes (size AND pet AND color)
+ *
+ * Prices are kept as long cents in two parallel arrays ordered by (price, slot), so a price
+ * range is two binary searches plus a walk over the k matching slots: O(log n + k).
+ * The resulting bitmap is AND-ed with the attribute bitmaps like any other criterion.
+ *
+ * The index is loaded when the application is ready and then kept up to date from
+ * ProductChangedEvent after the surrounding transaction commits. When a ProductCatalogSnapshot
+ * exists it is loaded from that file first, so the node serves catalog queries right away,
+ * and reconciled with the database in the background; the snapshot is rewritten after
+ * reconciliation and on shutdown. A reconciliation replacing content the index already served
+ * publishes ProductChangedEvent.bulk(), so results cached from the old content are dropped and
+ * CatalogVersion moves on.
+ * It can be switched off with app.catalog.index.enabled=false, in which case
+ * ProductService falls back to the JPA Specification path.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogIndex {
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final ProductCatalogSnapshot catalogSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.catalog.index.enabled:false}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Slot> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+
+    private final Map<SizeType, BitSet> bySize = new EnumMap<>(SizeType.class);
+    private final Map<PetType, BitSet> byPet = new EnumMap<>(PetType.class);
+
+    // Colors are dictionary-encoded: color -> code, code -> bitmap
+    private final Map<String, Integer> colorCodes = new HashMap<>();
+    private final List<BitSet> byColor = new ArrayList<>();
+
+    // sortedSlots[i] is the slot with the i-th lowest price, sortedCents[i] its price in cents
+    private long[] sortedCents = new long[0];
+    private int[] sortedSlots = new int[0];
+    private int priced;
+
+    private volatile boolean loaded;
+
+    // Catalog version of the last snapshot written by this node, -1 when none
+    private volatile long snapshotVersion = -1;
+
+    // BULK event published by reconcile, the index already holds the content it announces
+    private volatile ProductChangedEvent reconciled;
+
+    private Executor reconcileExecutor = task -> Thread.ofVirtual().name("catalog-reconcile").start(task);
+
+    private static final int MAX_RECONCILE_ATTEMPTS = 5;
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private record Slot(Product product, String lowerName, int colorCode, long priceCents) {
+    }
+
+    /**
+     * @return true when the index is enabled and has been loaded, i.e. it can serve queries
+     */
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    /**
+     * Loads all products once the application has started: from the snapshot file when there is
+     * one, followed by a background reconciliation with the database, otherwise from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Catalog index disabled, product filtering uses the database");
+            return;
+        }
+        Optional<List<Product>> snapshot = catalogSnapshot.read();
+        if (snapshot.isEmpty()) {
+            reconcile();
+            return;
+        }
+        rebuild(snapshot.get());
+        reconcileExecutor.execute(this::reconcile);
+    }
+
+    /**
+     * Replaces the index content with the database content and writes a fresh snapshot.
+     *
+     * The database is read without holding the lock, so product changes may be applied to the index
+     * meanwhile. The read result is only installed when CatalogVersion has not moved since the read
+     * started; otherwise it could be older than the index and the read is repeated. Changes committed
+     * during the read whose events are still pending are applied after the rebuild, as usual.
+     *
+     * When the index was already serving, e.g. snapshot content after a warm start or the last
+     * known-good catalog after degraded mode, whatever was derived from that content is now stale:
+     * a BULK event makes the caches and the other indexes drop it and bumps CatalogVersion, so old
+     * ETags no longer match.
+     */
+    void reconcile() {
+        for (int attempt = 1; attempt <= MAX_RECONCILE_ATTEMPTS; attempt++) {
+            long version = catalogVersion.current();
+            boolean serving = loaded;
+            List<Product> products = productRepository.findAll();
+            if (rebuildAt(products, version)) {
+                catalogSnapshot.write(products);
+                snapshotVersion = version;
+                if (serving) {
+                    ProductChangedEvent event = ProductChangedEvent.bulk();
+                    reconciled = event;
+                    eventPublisher.publishEvent(event);
+                }
+                return;
+            }
+            log.debug("Catalog changed while reconciling the index, retrying ({}/{})", attempt, MAX_RECONCILE_ATTEMPTS);
+        }
+        log.warn("Catalog index not reconciled after {} attempts, it keeps serving the snapshot content "
+                + "updated by product events", MAX_RECONCILE_ATTEMPTS);
+    }
+
+    /**
+     * Saves the current index content on shutdown so the next start can begin from it.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void saveSnapshot() {
+        if (!isReady() || !catalogSnapshot.isEnabled()) {
+            return;
+        }
+        List<Product> products;
+        long version;
+        lock.readLock().lock();
+        try {
+            version = catalogVersion.current();
+            products = new ArrayList<>(slotById.size());
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                products.add(slots.get(slot).product());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (version != snapshotVersion) {
+            catalogSnapshot.write(products);
+        }
+    }
+
+    /**
+     * Replaces the whole index content with the given products.
+     */
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            replaceContent(products);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Catalog index loaded with {} products", products.size());
+    }
+
+    // Like rebuild, but only when no product change has been applied since the given catalog version
+    private boolean rebuildAt(Collection<Product> products, long version) {
+        lock.writeLock().lock();
+        try {
+            if (catalogVersion.current() != version) {
+                return false;
+            }
+            replaceContent(products);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Catalog index reconciled with {} products from the database", products.size());
+        return true;
+    }
+
+    private void replaceContent(Collection<Product> products) {
+        slots.clear();
+        slotById.clear();
+        freeSlots.clear();
+        live.clear();
+        bySize.clear();
+        byPet.clear();
+        colorCodes.clear();
+        byColor.clear();
+
+        for (Product product : products) {
+            insert(product.toBuilder().build());
+        }
+        sortPrices();
+        loaded = true;
+    }
+
+    /**
+     * Applies product changes once the transaction that made them has committed.
+     * Runs first, before caches of query results built on top of the index and before CatalogVersion.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.getType()) {
+            case UPSERTED -> upsert(event.getProduct());
+            case DELETED -> remove(event.getProductId());
+            case BULK -> {
+                if (event != reconciled) {
+                    rebuild(productRepository.findAll());
+                }
+            }
+        }
+    }
+
+    public void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            clearSlot(product.getId());
+            addPrice(insert(product));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Catalog index updated for product {}", product.getId());
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            clearSlot(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Product {} removed from catalog index", productId);
+    }
+
+    /**
+     * Finds products matching the filter. Semantics follow ProductSpecification:
+     * values inside one attribute are OR-ed, attributes are AND-ed, empty lists are ignored,
+     * search is a case-insensitive partial match on the name, price bounds are inclusive.
+     *
+     * @return mutable list of matching products ordered by id
+     */
+    public List<Product> findProducts(ProductFilterDTO filter) {
+        lock.readLock().lock();
+        try {
+            BitSet result = searchMatches(filter.getSearch());
+            result.and(sizeMask(filter.getSize()));
+            result.and(petMask(filter.getPet()));
+            result.and(colorMask(filter.getColor()));
+            result.and(priceMask(filter.getMinPrice(), filter.getMaxPrice()));
+
+            List<Product> products = new ArrayList<>(result.cardinality());
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                products.add(slots.get(slot).product());
+            }
+            products.sort(Comparator.comparing(Product::getId));
+            return products;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return indexed products among the given ids, keyed by id; unknown ids are absent
+     */
+    public Map<Long, Product> findByIds(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Product> found = new HashMap<>();
+            for (Long id : ids) {
+                Integer slot = slotById.get(id);
+                if (slot != null) {
+                    found.put(id, slots.get(slot).product());
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts products per attribute value, each attribute with the other attributes' selections
+     * applied but not its own. Only bitmap intersections, no product is visited twice.
+     */
+    public ProductFacetsDTO getFacets(ProductFilterDTO filter) {
+        lock.readLock().lock();
+        try {
+            BitSet base = searchMatches(filter.getSearch());
+            base.and(priceMask(filter.getMinPrice(), filter.getMaxPrice()));
+            BitSet sizeMask = sizeMask(filter.getSize());
+            BitSet petMask = petMask(filter.getPet());
+            BitSet colorMask = colorMask(filter.getColor());
+
+            Map<SizeType, Long> sizeCounts = new EnumMap<>(SizeType.class);
+            BitSet sizeBase = intersect(base, petMask, colorMask);
+            for (SizeType size : SizeType.values()) {
+                sizeCounts.put(size, (long) intersect(sizeBase, bySize.getOrDefault(size, EMPTY)).cardinality());
+            }
+
+            Map<PetType, Long> petCounts = new EnumMap<>(PetType.class);
+            BitSet petBase = intersect(base, sizeMask, colorMask);
+            for (PetType pet : PetType.values()) {
+                petCounts.put(pet, (long) intersect(petBase, byPet.getOrDefault(pet, EMPTY)).cardinality());
+            }
+
+            Map<String, Long> colorCounts = new TreeMap<>();
+            BitSet colorBase = intersect(base, sizeMask, petMask);
+            colorCodes.forEach((color, code) -> {
+                long count = intersect(colorBase, byColor.get(code)).cardinality();
+                if (count > 0) {
+                    colorCounts.put(color, count);
+                }
+            });
+
+            return ProductFacetsDTO.builder()
+                    .size(sizeCounts)
+                    .pet(petCounts)
+                    .color(colorCounts)
+                    .total(intersect(sizeBase, sizeMask).cardinality())
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Live slots whose name contains the search query, all live slots when there is no query
+    private BitSet searchMatches(String search) {
+        BitSet result = (BitSet) live.clone();
+        String pattern = search == null ? "" : search.toLowerCase().trim();
+        if (pattern.isEmpty()) {
+            return result;
+        }
+        for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+            if (!slots.get(slot).lowerName().contains(pattern)) {
+                result.clear(slot);
+            }
+        }
+        return result;
+    }
+
+    private BitSet sizeMask(List<SizeType> sizes) {
+        if (sizes == null || sizes.isEmpty()) {
+            return live;
+        }
+        return union(sizes.stream().map(bySize::get).toList());
+    }
+
+    private BitSet petMask(List<PetType> pets) {
+        if (pets == null || pets.isEmpty()) {
+            return live;
+        }
+        return union(pets.stream().map(byPet::get).toList());
+    }
+
+    private BitSet colorMask(List<String> colors) {
+        if (colors == null || colors.isEmpty()) {
+            return live;
+        }
+        return union(colors.stream()
+                .map(colorCodes::get)
+                .filter(Objects::nonNull)
+                .map(byColor::get)
+                .toList());
+    }
+
+    // Slots priced within the inclusive range, all live slots when there are no bounds
+    private BitSet priceMask(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return live;
+        }
+        int from = minPrice == null ? 0 : firstPricedAtLeast(toCents(minPrice, RoundingMode.CEILING));
+        int to = maxPrice == null ? priced : firstPricedAtLeast(toCents(maxPrice, RoundingMode.FLOOR) + 1);
+
+        BitSet mask = new BitSet();
+        for (int i = from; i < to; i++) {
+            mask.set(sortedSlots[i]);
+        }
+        return mask;
+    }
+
+    // Index of the first price entry >= cents, priced when there is none
+    private int firstPricedAtLeast(long cents) {
+        int low = 0;
+        int high = priced;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedCents[mid] < cents) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Index of the entry for (cents, slot), or where it has to be inserted
+    private int pricePosition(long cents, int slot) {
+        int low = firstPricedAtLeast(cents);
+        while (low < priced && sortedCents[low] == cents && sortedSlots[low] < slot) {
+            low++;
+        }
+        return low;
+    }
+
+    // Must be called while holding the write lock
+    private void addPrice(int slot) {
+        if (priced == sortedSlots.length) {
+            int capacity = Math.max(16, priced * 2);
+            sortedCents = Arrays.copyOf(sortedCents, capacity);
+            sortedSlots = Arrays.copyOf(sortedSlots, capacity);
+        }
+        long cents = slots.get(slot).priceCents();
+        int at = pricePosition(cents, slot);
+        System.arraycopy(sortedCents, at, sortedCents, at + 1, priced - at);
+        System.arraycopy(sortedSlots, at, sortedSlots, at + 1, priced - at);
+        sortedCents[at] = cents;
+        sortedSlots[at] = slot;
+        priced++;
+    }
+
+    // Must be called while holding the write lock
+    private void removePrice(long cents, int slot) {
+        int at = pricePosition(cents, slot);
+        System.arraycopy(sortedCents, at + 1, sortedCents, at, priced - at - 1);
+        System.arraycopy(sortedSlots, at + 1, sortedSlots, at, priced - at - 1);
+        priced--;
+    }
+
+    // Must be called while holding the write lock; one sort instead of n shifting inserts on rebuild
+    private void sortPrices() {
+        Integer[] order = live.stream().boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.<Integer>comparingLong(slot -> slots.get(slot).priceCents())
+                .thenComparingInt(slot -> slot));
+
+        priced = order.length;
+        sortedCents = new long[priced];
+        sortedSlots = new int[priced];
+        for (int i = 0; i < priced; i++) {
+            sortedSlots[i] = order[i];
+            sortedCents[i] = slots.get(order[i]).priceCents();
+        }
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, rounding);
+        // Keeps cents + 1 from overflowing for absurdly large bounds
+        return cents.min(BigDecimal.valueOf(Long.MAX_VALUE - 1)).longValue();
+    }
+
+    private static BitSet union(List<BitSet> bitmaps) {
+        BitSet union = new BitSet();
+        for (BitSet bitmap : bitmaps) {
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    private static BitSet intersect(BitSet first, BitSet... others) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet other : others) {
+            result.and(other);
+        }
+        return result;
+    }
+
+    // Must be called while holding the write lock; the price order is maintained by the caller
+    private int insert(Product product) {
+        int slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+        int colorCode = encodeColor(product.getColor());
+        long priceCents = toCents(product.getPrice(), RoundingMode.HALF_UP);
+        Slot entry = new Slot(product, product.getName().toLowerCase(), colorCode, priceCents);
+
+        if (slot == slots.size()) {
+            slots.add(entry);
+        } else {
+            slots.set(slot, entry);
+        }
+        slotById.put(product.getId(), slot);
+        live.set(slot);
+        for (SizeType size : SizeType.fromMask(product.getSizeMask())) {
+            bySize.computeIfAbsent(size, s -> new BitSet()).set(slot);
+        }
+        byPet.computeIfAbsent(product.getPet(), p -> new BitSet()).set(slot);
+        if (colorCode >= 0) {
+            byColor.get(colorCode).set(slot);
+        }
+        return slot;
+    }
+
+    // Must be called while holding the write lock
+    private void clearSlot(Long productId) {
+        Integer slot = slotById.remove(productId);
+        if (slot == null) {
+            return;
+        }
+        Slot entry = slots.get(slot);
+        live.clear(slot);
+        for (SizeType size : SizeType.fromMask(entry.product().getSizeMask())) {
+            bySize.get(size).clear(slot);
+        }
+        byPet.get(entry.product().getPet()).clear(slot);
+        if (entry.colorCode() >= 0) {
+            byColor.get(entry.colorCode()).clear(slot);
+        }
+        removePrice(entry.priceCents(), slot);
+        slots.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    // Must be called while holding the write lock
+    private int encodeColor(String color) {
+        if (color == null) {
+            return -1;
+        }
+        return colorCodes.computeIfAbsent(color, c -> {
+            byColor.add(new BitSet());
+            return byColor.size() - 1;
+        });
+    }
+}
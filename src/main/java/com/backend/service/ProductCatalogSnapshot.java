@@ -0,0 +1,192 @@
+package com.backend.service;
+
+
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary on-disk copy of the product catalog, used to fill ProductCatalogIndex on startup
+ * before the database has been read.
+ *
+ * Layout (big-endian):
+ * - header: magic, format version, string count, product count
+ * - string table: every distinct name, color, img, size and pet value once, as length + UTF-8 bytes
+ * - product records of fixed width: id, string codes of name/size/pet/color/img (-1 for null),
+ *   size mask of the available variants, price as unscaled long + scale
+ * - trailer: CRC32 of everything before it
+ *
+ * Colors, sizes and pets repeat across thousands of products and are stored once in the table.
+ * The file is read through a read-only memory mapping, so loading is a sequential scan of the
+ * page cache without copying the file into the heap first. A missing, truncated or corrupt file
+ * is ignored and the caller falls back to the database.
+ *
+ * Disabled when app.catalog.snapshot.path is empty.
+ */
+@Slf4j
+@Component
+public class ProductCatalogSnapshot {
+
+    private static final int MAGIC = 0x54504353; // "TPCS"
+    // 2: records carry the variant size mask, 3: no catalog version in the header
+    private static final int FORMAT_VERSION = 3;
+    private static final int NULL_CODE = -1;
+
+    @Value("${app.catalog.snapshot.path:}")
+    private String path;
+
+    public boolean isEnabled() {
+        return path != null && !path.isBlank();
+    }
+
+    /**
+     * @return snapshot products, empty when disabled or when the file is missing or unreadable
+     */
+    public Optional<List<Product>> read() {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Path file = Path.of(path);
+        if (!Files.isRegularFile(file)) {
+            log.info("No catalog snapshot at {}", file);
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<Product> products = decode(buffer);
+            log.info("Catalog snapshot {} read: {} products", file, products.size());
+            return Optional.of(products);
+        } catch (IOException | RuntimeException e) {
+            // Truncated or foreign files surface as BufferUnderflowException, IllegalArgumentException etc.
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the products to a temporary file and atomically replaces the snapshot with it,
+     * so a crash mid-write never leaves a half-written snapshot behind. Failures are logged only:
+     * the snapshot is a startup optimization, the database stays the source of truth.
+     */
+    public void write(Collection<Product> products) {
+        if (!isEnabled()) {
+            return;
+        }
+        Path file = Path.of(path).toAbsolutePath();
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                encode(temp, products);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.info("Catalog snapshot {} written: {} products", file, products.size());
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot {}: {}", file, e.toString());
+        }
+    }
+
+    private static void encode(Path target, Collection<Product> products) throws IOException {
+        Map<String, Integer> codes = new LinkedHashMap<>();
+        for (Product product : products) {
+            code(codes, product.getName());
+            code(codes, product.getSize().name());
+            code(codes, product.getPet().name());
+            code(codes, product.getColor());
+            code(codes, product.getImg());
+        }
+
+        CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(target)), new CRC32());
+        try (DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(codes.size());
+            out.writeInt(products.size());
+
+            for (String value : codes.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            for (Product product : products) {
+                out.writeLong(product.getId());
+                out.writeInt(code(codes, product.getName()));
+                out.writeInt(code(codes, product.getSize().name()));
+                out.writeInt(code(codes, product.getPet().name()));
+                out.writeInt(code(codes, product.getColor()));
+                out.writeInt(code(codes, product.getImg()));
+                out.writeInt(product.getSizeMask());
+                out.writeLong(product.getPrice().unscaledValue().longValueExact());
+                out.writeInt(product.getPrice().scale());
+            }
+
+            out.writeInt((int) checked.getChecksum().getValue());
+        }
+    }
+
+    private static List<Product> decode(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, buffer.limit() - Integer.BYTES));
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - Integer.BYTES)) {
+            throw new IllegalStateException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IllegalStateException("unknown snapshot format");
+        }
+        String[] strings = new String[buffer.getInt()];
+        int productCount = buffer.getInt();
+
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        List<Product> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            products.add(Product.builder()
+                    .id(buffer.getLong())
+                    .name(string(strings, buffer.getInt()))
+                    .size(SizeType.valueOf(string(strings, buffer.getInt())))
+                    .pet(PetType.valueOf(string(strings, buffer.getInt())))
+                    .color(string(strings, buffer.getInt()))
+                    .img(string(strings, buffer.getInt()))
+                    .sizeMask(buffer.getInt())
+                    .price(new BigDecimal(BigInteger.valueOf(buffer.getLong()), buffer.getInt()))
+                    .build());
+        }
+        return products;
+    }
+
+    private static int code(Map<String, Integer> codes, String value) {
+        return value == null ? NULL_CODE : codes.computeIfAbsent(value, v -> codes.size());
+    }
+
+    private static String string(String[] strings, int code) {
+        return code == NULL_CODE ? null : strings[code];
+    }
+}
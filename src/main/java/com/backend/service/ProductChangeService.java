@@ -0,0 +1,235 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductChangeDTO;
+import com.backend.dto.ProductChangesDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.exception.InvalidRequestException;
+import com.backend.mapper.ProductMapper;
+import com.backend.model.ProductChange;
+import com.backend.model.ProductChangeType;
+import com.backend.repository.ProductChangeRepository;
+import com.backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records every product change with an increasing sequence number and serves them to clients
+ * and peer nodes that sync deltas instead of re-fetching the catalog.
+ *
+ * Changes are recorded inside the transaction that changes the product, so a change row exists
+ * exactly when the change committed. Recording takes a transaction-scoped advisory lock first:
+ * change rows are then committed in sequence order, and a reader that has seen sequence N can
+ * never later miss a smaller sequence committed after it. Product writes are rare admin
+ * operations, serializing them is cheap.
+ *
+ * Subscribers of the SSE stream get every change pushed once its transaction has committed.
+ * Pushes, including the replay for a new subscriber, run on a single background thread, so
+ * neither the writer's after-commit listener nor the subscribing request waits for a slow client.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductChangeService {
+
+    private static final String INVALID_SINCE = "since must not be negative";
+    private static final String INVALID_LIMIT = "limit must be between 1 and %d";
+    private static final int MAX_LIMIT = 1000;
+    private static final String CHANGE_EVENT_NAME = "product-change";
+
+    // Arbitrary application-wide key of the advisory lock that orders change rows
+    private static final long CHANGE_LOCK_KEY = 0x7072_6f64_6368_67L;
+
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // One thread, so pushes never overlap and each subscriber gets its changes in order
+    private Executor pushExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("product-change-push").daemon().factory());
+
+    // Set while a push is queued but not started; further requests are covered by that push
+    private final AtomicBoolean pushQueued = new AtomicBoolean();
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        // Highest sequence sent to this subscriber, only touched by the push thread
+        private long lastSeq;
+
+        private Subscriber(SseEmitter emitter, long lastSeq) {
+            this.emitter = emitter;
+            this.lastSeq = lastSeq;
+        }
+    }
+
+    /**
+     * Runs synchronously inside the transaction publishing the event, or in its own transaction
+     * when there is none (bulk import publishes after its batches have committed).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    @Transactional
+    public void record(ProductChangedEvent event) {
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + CHANGE_LOCK_KEY + ")");
+        ProductChange change = productChangeRepository.save(ProductChange.builder()
+                .productId(event.getProductId())
+                .changeType(switch (event.getType()) {
+                    case UPSERTED -> ProductChangeType.UPSERT;
+                    case DELETED -> ProductChangeType.DELETE;
+                    case BULK -> ProductChangeType.RESET;
+                })
+                .changedAt(LocalDateTime.now())
+                .build());
+        log.debug("Recorded product change {} {} of product {}", change.getSeq(), change.getChangeType(), change.getProductId());
+    }
+
+    /**
+     * @return up to limit changes with a sequence greater than since, UPSERTs carry the current product
+     */
+    @Transactional(readOnly = true)
+    public ProductChangesDTO getChanges(long since, int limit) {
+        validateSince(since);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException(String.format(INVALID_LIMIT, MAX_LIMIT));
+        }
+        List<ProductChange> changes = productChangeRepository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(limit + 1));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        return ProductChangesDTO.builder()
+                .changes(toDtos(changes))
+                .lastSeq(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Opens an SSE stream that first replays the changes after since, then pushes new ones.
+     * Every event carries its sequence as SSE id, so a reconnecting client resumes with Last-Event-ID.
+     */
+    public SseEmitter subscribe(long since) {
+        validateSince(since);
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Product change subscriber added from seq {}, {} subscribers", since, subscribers.size());
+        requestPush();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        requestPush();
+    }
+
+    private void requestPush() {
+        if (subscribers.isEmpty() || !pushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        pushExecutor.execute(() -> {
+            // Cleared before reading, so a change committed from now on queues another push
+            pushQueued.set(false);
+            try {
+                push();
+            } catch (RuntimeException e) {
+                log.error("Pushing product changes to subscribers failed", e);
+            }
+        });
+    }
+
+    // Sends every subscriber the committed changes it has not seen yet, reading them once for all.
+    // Runs on the push thread only
+    private void push() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long since = subscribers.stream().mapToLong(s -> s.lastSeq).min().orElseThrow();
+        List<ProductChange> changes;
+        do {
+            changes = productChangeRepository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(MAX_LIMIT));
+            for (ProductChangeDTO change : toDtos(changes)) {
+                for (Subscriber subscriber : subscribers) {
+                    send(subscriber, change);
+                }
+            }
+            if (!changes.isEmpty()) {
+                since = changes.get(changes.size() - 1).getSeq();
+            }
+        } while (changes.size() == MAX_LIMIT);
+    }
+
+    private void send(Subscriber subscriber, ProductChangeDTO change) {
+        if (change.getSeq() <= subscriber.lastSeq) {
+            return;
+        }
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(change.getSeq()))
+                    .name(CHANGE_EVENT_NAME)
+                    .data(change));
+            subscriber.lastSeq = change.getSeq();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping product change subscriber: {}", e.toString());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private List<ProductChangeDTO> toDtos(List<ProductChange> changes) {
+        Set<Long> upserted = new HashSet<>();
+        for (ProductChange change : changes) {
+            if (change.getChangeType() == ProductChangeType.UPSERT) {
+                upserted.add(change.getProductId());
+            }
+        }
+        Map<Long, ProductResponseDTO> products = new HashMap<>();
+        if (!upserted.isEmpty()) {
+            productRepository.findAllById(upserted)
+                    .forEach(product -> products.put(product.getId(), productMapper.toFilterDto(product)));
+        }
+
+        List<ProductChangeDTO> dtos = new ArrayList<>(changes.size());
+        for (ProductChange change : changes) {
+            dtos.add(ProductChangeDTO.builder()
+                    .seq(change.getSeq())
+                    .type(change.getChangeType())
+                    .productId(change.getProductId())
+                    .product(change.getChangeType() == ProductChangeType.UPSERT ? products.get(change.getProductId()) : null)
+                    .changedAt(change.getChangedAt())
+                    .build());
+        }
+        return dtos;
+    }
+
+    private static void validateSince(long since) {
+        if (since < 0) {
+            throw new InvalidRequestException(INVALID_SINCE);
+        }
+    }
+}
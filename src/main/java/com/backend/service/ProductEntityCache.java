@@ -0,0 +1,45 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductEntityCacheStatsDTO;
+import com.backend.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports on the second-level cache region of Product, configured in ehcache.xml.
+ *
+ * Hibernate maintains the region itself: loads by id (EntityManager.find, findById and
+ * ProductRepository.findAllById) read through it, entity writes update it on commit, and bulk or
+ * native statements on the products table evict it. Counters come from Hibernate statistics
+ * (hibernate.generate_statistics) and stay 0 when those are switched off.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductEntityCache {
+
+    static final String REGION = Product.class.getName();
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ProductEntityCacheStatsDTO stats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        CacheRegionStatistics region = statistics.getCacheRegionStatistics(REGION);
+        if (region == null) {
+            return new ProductEntityCacheStatsDTO();
+        }
+        long lookups = region.getHitCount() + region.getMissCount();
+        return ProductEntityCacheStatsDTO.builder()
+                .size(Math.max(region.getElementCountInMemory(), 0))
+                .hits(region.getHitCount())
+                .misses(region.getMissCount())
+                .hitRate(lookups == 0 ? 0 : (double) region.getHitCount() / lookups)
+                .puts(region.getPutCount())
+                .databaseLoads(statistics.getEntityStatistics(REGION).getLoadCount())
+                .build();
+    }
+}
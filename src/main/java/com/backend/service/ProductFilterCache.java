@@ -0,0 +1,162 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductFilterCacheStatsDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * Bounded LRU cache of product filter results keyed by ProductFilterKey.
+ *
+ * Product changes invalidate precisely: an update evicts the results that contained the product
+ * and the results whose filter the new state matches, a delete evicts the results that contained it,
+ * a bulk change clears everything. Other entries survive.
+ *
+ * Every change also advances a generation counter. Callers read the generation before querying
+ * and pass it to put(), so a result computed before a change can never be stored after it.
+ * Disabled when app.catalog.filter-cache.max-entries is 0.
+ */
+@Slf4j
+@Component
+public class ProductFilterCache {
+
+    @Value("${app.catalog.filter-cache.max-entries:0}")
+    private int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // Access-ordered, so the eldest entry is the least recently used one; guarded by this
+    private final Map<ProductFilterKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ProductFilterKey, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private long generation;
+
+    private record Entry(List<ProductResponseDTO> products, Set<Long> ids) {
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * @return the current generation, to be passed to put() with the result of the query
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @return the cached, unmodifiable result or null on a miss
+     */
+    public List<ProductResponseDTO> get(ProductFilterKey key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.products();
+    }
+
+    /**
+     * Stores the result unless a product changed since the given generation was read.
+     */
+    public void put(ProductFilterKey key, List<ProductResponseDTO> products, long queriedAtGeneration) {
+        if (!isEnabled()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (ProductResponseDTO product : products) {
+            ids.add(product.getId());
+        }
+        Entry entry = new Entry(List.copyOf(products), ids);
+        synchronized (this) {
+            if (queriedAtGeneration == generation) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Runs after the catalog index has applied the change, so a miss right after the invalidation
+     * cannot read the old state from the index, and before CatalogVersion.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        int removed;
+        synchronized (this) {
+            generation++;
+            removed = switch (event.getType()) {
+                case UPSERTED -> removeIf((key, entry) -> entry.ids().contains(event.getProductId())
+                        || key.mayMatch(event.getProduct()));
+                case DELETED -> removeIf((key, entry) -> entry.ids().contains(event.getProductId()));
+                case BULK -> removeIf((key, entry) -> true);
+            };
+        }
+        invalidations.add(removed);
+        log.debug("Filter cache: {} of product {} invalidated {} entries", event.getType(), event.getProductId(), removed);
+    }
+
+    public ProductFilterCacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return ProductFilterCacheStatsDTO.builder()
+                .size(size)
+                .maxEntries(maxEntries)
+                .hits(hitCount)
+                .misses(lookups - hitCount)
+                .hitRate(lookups == 0 ? 0 : (double) hitCount / lookups)
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    // Must be called while holding the monitor
+    private int removeIf(BiPredicate<ProductFilterKey, Entry> stale) {
+        int removed = 0;
+        Iterator<Map.Entry<ProductFilterKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ProductFilterKey, Entry> entry = iterator.next();
+            if (stale.test(entry.getKey(), entry.getValue())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
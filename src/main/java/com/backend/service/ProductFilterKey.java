@@ -0,0 +1,117 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductFilterDTO;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.ProductSort;
+import com.backend.model.SearchMode;
+import com.backend.model.SizeType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Canonical form of a product filter query.
+ *
+ * Requests that differ only in parameter order, duplicates, search casing, surrounding
+ * whitespace or trailing zeros of price bounds produce equal keys, so the key can be used for caching and ETags.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ProductFilterKey {
+
+    List<SizeType> sizes;
+    List<PetType> pets;
+    List<String> colors;
+    String search;
+    SearchMode searchMode;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    ProductSort sort;
+    Sort.Direction direction;
+
+    public static ProductFilterKey of(ProductFilterDTO filter, ProductSort sort, Sort.Direction direction) {
+        String search = filter.getSearch() == null || filter.getSearch().isBlank()
+                ? null
+                : filter.getSearch().toLowerCase().trim();
+        SearchMode searchMode = null;
+        if (search != null) {
+            searchMode = filter.getSearchMode() == null ? SearchMode.CONTAINS : filter.getSearchMode();
+        }
+        Sort.Direction order = sort == null ? null : (direction == null ? Sort.Direction.ASC : direction);
+
+        return new ProductFilterKey(
+                normalize(filter.getSize()),
+                normalize(filter.getPet()),
+                normalize(filter.getColor()),
+                search,
+                searchMode,
+                normalize(filter.getMinPrice()),
+                normalize(filter.getMaxPrice()),
+                sort,
+                order
+        );
+    }
+
+    /**
+     * @return stable textual form, e.g. "size=M,S;pet=DOG;color=;search=toy/CONTAINS;price=10..;sort=PRICE/ASC"
+     */
+    public String canonical() {
+        return "size=" + join(sizes)
+                + ";pet=" + join(pets)
+                + ";color=" + join(colors)
+                + ";search=" + (search == null ? "" : search + "/" + searchMode)
+                + ";price=" + (minPrice == null && maxPrice == null ? "" : plain(minPrice) + ".." + plain(maxPrice))
+                + ";sort=" + (sort == null ? "" : sort + "/" + direction);
+    }
+
+    /**
+     * Tells whether the product could be part of the result for this key.
+     * Exact for the attribute filters and CONTAINS search; SIMILAR search is ranked by the
+     * database, so every product is assumed to possibly match it.
+     */
+    public boolean mayMatch(Product product) {
+        if (!sizes.isEmpty() && (product.getSizeMask() & SizeType.maskOf(sizes)) == 0) {
+            return false;
+        }
+        if (!pets.isEmpty() && !pets.contains(product.getPet())) {
+            return false;
+        }
+        if (!colors.isEmpty() && !colors.contains(product.getColor())) {
+            return false;
+        }
+        if (minPrice != null && product.getPrice().compareTo(minPrice) < 0
+                || maxPrice != null && product.getPrice().compareTo(maxPrice) > 0) {
+            return false;
+        }
+        return search == null
+                || searchMode == SearchMode.SIMILAR
+                || product.getName().toLowerCase().contains(search);
+    }
+
+    private static <T extends Comparable<? super T>> List<T> normalize(Collection<T> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().distinct().sorted().toList();
+    }
+
+    // 10, 10.0 and 10.00 are the same bound
+    private static BigDecimal normalize(BigDecimal price) {
+        return price == null ? null : price.stripTrailingZeros();
+    }
+
+    private static String plain(BigDecimal price) {
+        return price == null ? "" : price.toPlainString();
+    }
+
+    private static String join(List<?> values) {
+        return String.join(",", values.stream().map(String::valueOf).toList());
+    }
+}
@@ -0,0 +1,324 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductImportErrorDTO;
+import com.backend.dto.ProductImportResultDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.exception.InvalidRequestException;
+import com.backend.model.PetType;
+import com.backend.model.ProductImportFormat;
+import com.backend.model.SizeType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Bulk product import for admins.
+ *
+ * The upload is read line by line, every row is validated as soon as it is read and valid rows
+ * are written in JDBC batches of app.catalog.import.batch-size, each batch in its own transaction.
+ * Nothing but the current batch is kept in memory, so the file size is not limited by the heap.
+ *
+ * Rows whose name already exists, in the database or earlier in the same file, are skipped by
+ * ON CONFLICT DO NOTHING and reported as errors from the update count.
+ * Each inserted product gets its product_variants row in the same statement; NDJSON rows may
+ * list further sizes in "sizes", CSV rows are offered in their one size.
+ * Catalog listeners are notified once, with a BULK event, after the whole file is processed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    // Update count is 0 when the name already exists, as no product id comes back for the variants row
+    private static final String INSERT_PRODUCT = """
+            WITH inserted AS (
+                INSERT INTO products (name, size, pet, color, price, img) VALUES (?, ?, ?, ?, ?, ?)
+                ON CONFLICT DO NOTHING
+                RETURNING id
+            )
+            INSERT INTO product_variants (product_id, size_mask) SELECT id, ? FROM inserted""";
+    private static final List<String> CSV_COLUMNS = List.of("name", "size", "pet", "color", "price", "img");
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_PRICE_INTEGER_DIGITS = 8;
+    private static final String UTF8_BOM = "\uFEFF";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.catalog.import.batch-size:500}")
+    private int batchSize;
+
+    private record ImportRow(long line, ProductResponseDTO product) {
+    }
+
+    /**
+     * Imports products from NDJSON (one product object per line) or CSV (header line followed by rows).
+     *
+     * @return number of inserted products and the rejected rows with their line numbers
+     */
+    public ProductImportResultDTO importProducts(InputStream input, ProductImportFormat format) {
+        log.info("Starting {} product import with batch size {}", format, batchSize);
+
+        Import importRun = new Import();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (format == ProductImportFormat.CSV) {
+                readCsv(reader, importRun);
+            } else {
+                readNdjson(reader, importRun);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read product import", e);
+        } finally {
+            importRun.flush();
+            if (importRun.imported > 0) {
+                eventPublisher.publishEvent(ProductChangedEvent.bulk());
+            }
+        }
+
+        log.info("Product import finished: {} imported, {} rejected", importRun.imported, importRun.failed);
+        return ProductImportResultDTO.builder()
+                .imported(importRun.imported)
+                .failed(importRun.failed)
+                .errors(importRun.errors)
+                .build();
+    }
+
+    private void readNdjson(BufferedReader reader, Import importRun) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                importRun.accept(lineNumber, objectMapper.readValue(line, ProductResponseDTO.class));
+            } catch (JsonProcessingException e) {
+                importRun.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, Import importRun) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = csvColumns(header);
+
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = splitCsvLine(line);
+            if (values == null) {
+                importRun.reject(lineNumber, "Unterminated quoted value");
+                continue;
+            }
+            if (values.size() != columns.size()) {
+                importRun.reject(lineNumber, String.format("Expected %d values but found %d", columns.size(), values.size()));
+                continue;
+            }
+            try {
+                importRun.accept(lineNumber, fromCsv(values, columns));
+            } catch (IllegalArgumentException e) {
+                importRun.reject(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, Integer> csvColumns(String header) {
+        List<String> names = splitCsvLine(header.startsWith(UTF8_BOM) ? header.substring(1) : header);
+        if (names == null) {
+            throw new InvalidRequestException("Malformed CSV header");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        if (names.size() != CSV_COLUMNS.size() || !columns.keySet().containsAll(CSV_COLUMNS)) {
+            throw new InvalidRequestException("CSV header must contain exactly the columns " + CSV_COLUMNS);
+        }
+        return columns;
+    }
+
+    private static ProductResponseDTO fromCsv(List<String> values, Map<String, Integer> columns) {
+        ProductResponseDTO product = new ProductResponseDTO();
+        product.setName(values.get(columns.get("name")));
+        product.setColor(values.get(columns.get("color")));
+        product.setImg(values.get(columns.get("img")));
+
+        String size = values.get(columns.get("size")).trim();
+        String pet = values.get(columns.get("pet")).trim();
+        String price = values.get(columns.get("price")).trim();
+        try {
+            product.setSize(size.isEmpty() ? null : SizeType.valueOf(size.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown size '" + size + "'");
+        }
+        try {
+            product.setPet(pet.isEmpty() ? null : PetType.valueOf(pet.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown pet '" + pet + "'");
+        }
+        try {
+            product.setPrice(price.isEmpty() ? null : new BigDecimal(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price '" + price + "'");
+        }
+        return product;
+    }
+
+    /**
+     * Splits one RFC 4180 style line: comma separated, values may be quoted and "" is an escaped quote.
+     * Quoted values spanning several lines are not supported.
+     *
+     * @return the values, or null when a quoted value is not terminated
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * @return description of the first violated rule, null when the product is valid
+     */
+    private static String validate(ProductResponseDTO product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "name is required";
+        }
+        if (product.getSize() == null) {
+            return "size is required";
+        }
+        if (product.getPet() == null) {
+            return "pet is required";
+        }
+        if (product.getColor() == null || product.getColor().isBlank()) {
+            return "color is required";
+        }
+        if (product.getImg() == null || product.getImg().isBlank()) {
+            return "img is required";
+        }
+        BigDecimal price = product.getPrice();
+        if (price == null || price.signum() <= 0) {
+            return "price must be greater than 0";
+        }
+        if (price.stripTrailingZeros().scale() > 2) {
+            return "price must have at most 2 decimal places";
+        }
+        if (price.precision() - price.scale() > MAX_PRICE_INTEGER_DIGITS) {
+            return "price is too large";
+        }
+        return null;
+    }
+
+    /**
+     * State of one import run: the pending batch, counters and the capped error report.
+     */
+    private class Import {
+
+        private final List<ImportRow> batch = new ArrayList<>(batchSize);
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        void accept(long line, ProductResponseDTO product) {
+            String error = validate(product);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            product.setName(product.getName().trim());
+            batch.add(new ImportRow(line, product));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportErrorDTO(line, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+                    INSERT_PRODUCT,
+                    batch,
+                    batch.size(),
+                    (ps, row) -> {
+                        ProductResponseDTO product = row.product();
+                        ps.setString(1, product.getName());
+                        ps.setString(2, product.getSize().name());
+                        ps.setString(3, product.getPet().name());
+                        ps.setString(4, product.getColor());
+                        ps.setBigDecimal(5, product.getPrice());
+                        ps.setString(6, product.getImg());
+                        ps.setInt(7, SizeType.maskOf(product.getSizes()) | product.getSize().bit());
+                    })[0]);
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (counts != null && counts[i] == 0) {
+                    ImportRow row = batch.get(i);
+                    reject(row.line(), "Product with name '" + row.product().getName() + "' already exists");
+                } else {
+                    imported++;
+                }
+            }
+            log.debug("Imported batch of {} products, {} imported so far", batch.size(), imported);
+            batch.clear();
+        }
+    }
+}
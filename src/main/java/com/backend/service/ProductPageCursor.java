@@ -0,0 +1,88 @@
+package com.backend.service;
+
+
+import com.backend.exception.InvalidRequestException;
+import com.backend.model.Product;
+import com.backend.model.ProductSort;
+import com.backend.specification.ProductSpecification;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor pointing at the last product of a page.
+ *
+ * Encoded as base64url("SORT:DIRECTION:id:sortValue"). The sort and direction are part
+ * of the cursor so it cannot be replayed against a different ordering.
+ */
+final class ProductPageCursor {
+
+    private static final String INVALID_CURSOR = "Invalid page cursor";
+
+    private final ProductSort sort;
+    private final Sort.Direction direction;
+    private final Long id;
+    private final String value;
+
+    private ProductPageCursor(ProductSort sort, Sort.Direction direction, Long id, String value) {
+        this.sort = sort;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    static String encode(ProductSort sort, Sort.Direction direction, Product last) {
+        String value = switch (sort) {
+            case ID -> "";
+            case PRICE -> last.getPrice().toPlainString();
+            case NAME -> last.getName();
+            case POPULARITY -> Double.toString(last.getPopularity());
+            case RELEVANCE -> throw new IllegalArgumentException("Relevance order has no keyset cursor");
+        };
+        String raw = sort + ":" + direction + ":" + last.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductPageCursor decode(String cursor, ProductSort sort, Sort.Direction direction) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split(":", 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+
+        if (parts.length != 4 || !parts[0].equals(sort.name()) || !parts[1].equals(direction.name())) {
+            throw new InvalidRequestException(INVALID_CURSOR + ": it was issued for a different sort order");
+        }
+
+        try {
+            ProductPageCursor decoded = new ProductPageCursor(sort, direction, Long.valueOf(parts[2]), parts[3]);
+            if (sort == ProductSort.PRICE) {
+                new BigDecimal(decoded.value);
+            } else if (sort == ProductSort.POPULARITY) {
+                Double.parseDouble(decoded.value);
+            }
+            return decoded;
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException(INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * @return predicate selecting the rows that come after this cursor in the cursor's ordering
+     */
+    Specification<Product> toSpecification() {
+        boolean ascending = direction.isAscending();
+        return switch (sort) {
+            case ID -> ProductSpecification.afterId(id, ascending);
+            case PRICE -> ProductSpecification.after(sort.getProperty(), new BigDecimal(value), id, ascending);
+            case NAME -> ProductSpecification.after(sort.getProperty(), value, id, ascending);
+            case POPULARITY -> ProductSpecification.after(sort.getProperty(), Double.valueOf(value), id, ascending);
+            case RELEVANCE -> throw new IllegalArgumentException("Relevance order has no keyset cursor");
+        };
+    }
+}
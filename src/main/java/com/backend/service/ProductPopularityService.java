@@ -0,0 +1,103 @@
+package com.backend.service;
+
+
+import com.backend.event.OrderPlacedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains products.popularity, the time-decayed number of units sold, behind sort=POPULARITY.
+ *
+ * Uses forward decay: a sale at time t adds quantity * 2^((t - EPOCH) / halfLife) instead of
+ * shrinking every existing score as time passes. At any moment all scores are the true decayed
+ * sums multiplied by the same factor, so ordering by the stored column equals ordering by decayed
+ * sales, and no periodic job has to rewrite the table.
+ *
+ * The weight outgrows a double (2^1024) about 1024 half-lives after EPOCH, after which scores
+ * become Infinity and the ordering collapses: about 84 years at the default 30d, under 3 years at
+ * 1d. Startup fails once fewer than MIN_HALF_LIVES_LEFT half-lives remain; EPOCH then has to move
+ * forward with every stored score divided by the weight of the new EPOCH.
+ *
+ * Counters are incremented with one SQL statement per product once the order has committed, so
+ * listings sort by a plain indexed column with no join to order_items at query time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductPopularityService {
+
+    static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+
+    // Headroom below 1024 for sums of many sales, and a margin before the scores overflow
+    static final long MAX_HALF_LIVES = 1000;
+    static final long MIN_HALF_LIVES_LEFT = 24;
+
+    private static final String INCREMENT_POPULARITY = "UPDATE products SET popularity = popularity + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog.popularity.half-life:30d}")
+    private Duration halfLife;
+
+    private Clock clock = Clock.systemUTC();
+
+    // Bumped whenever scores change, part of the ETag of popularity-ordered listings
+    private final AtomicLong rankingVersion = new AtomicLong(System.currentTimeMillis());
+
+    @PostConstruct
+    void checkHalfLife() {
+        if (halfLife.isNegative() || halfLife.isZero()) {
+            throw new IllegalStateException("app.catalog.popularity.half-life must be positive, was " + halfLife);
+        }
+        Instant overflow = EPOCH.plus(halfLife.multipliedBy(MAX_HALF_LIVES));
+        if (clock.instant().plus(halfLife.multipliedBy(MIN_HALF_LIVES_LEFT)).isAfter(overflow)) {
+            throw new IllegalStateException("Popularity scores with app.catalog.popularity.half-life " + halfLife
+                    + " overflow at " + overflow + ", use a longer half-life or move ProductPopularityService.EPOCH");
+        }
+        log.debug("Popularity scores with half-life {} stay finite until {}", halfLife, overflow);
+    }
+
+    public long rankingVersion() {
+        return rankingVersion.get();
+    }
+
+    /**
+     * Runs in its own transaction after the order has committed. A failure here is logged by the
+     * transaction infrastructure and loses only this order's contribution to the ranking.
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        double weight = weight(clock.instant());
+
+        // Ascending id order, so concurrent orders lock shared product rows in the same order
+        List<Object[]> increments = new ArrayList<>();
+        new TreeMap<>(event.getQuantities()).forEach((productId, quantity) ->
+                increments.add(new Object[]{quantity * weight, productId}));
+
+        jdbcTemplate.batchUpdate(INCREMENT_POPULARITY, increments);
+        rankingVersion.incrementAndGet();
+        log.debug("Popularity of {} products increased for order {}", increments.size(), event.getOrderId());
+    }
+
+    // 2^((now - EPOCH) / halfLife): the value of one sale now relative to one sale at EPOCH
+    double weight(Instant now) {
+        double halfLives = (double) Duration.between(EPOCH, now).toMillis() / halfLife.toMillis();
+        return Math.pow(2, halfLives);
+    }
+}
@@ -0,0 +1,86 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductQueryCoalescingStatsDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical catalog queries.
+ *
+ * The first caller for a key runs the query; callers arriving with the same key while it runs do not
+ * query themselves but wait for that result. Once the query finishes the key is forgotten, so the next
+ * caller queries again (or hits ProductFilterCache). Keys include the CatalogVersion: a caller that
+ * arrives after a product change never joins a query started before it.
+ *
+ * A failure is handed to every waiting caller, which rethrows it like the leader does.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductQueryCoalescer {
+
+    private final CatalogVersion catalogVersion;
+
+    private final ConcurrentMap<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    private record Flight(Object key, long version) {
+    }
+
+    /**
+     * Runs the query, or waits for the identical query another thread is already running.
+     *
+     * @param key canonical, equals-comparable form of the query
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> query) {
+        Flight flight = new Flight(key, catalogVersion.current());
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flight, created);
+
+        if (running != null) {
+            coalesced.increment();
+            log.debug("Joining in-flight query {}", key);
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        executed.increment();
+        try {
+            T result = query.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, created);
+        }
+    }
+
+    public ProductQueryCoalescingStatsDTO stats() {
+        long executedCount = executed.sum();
+        long coalescedCount = coalesced.sum();
+        long calls = executedCount + coalescedCount;
+        return ProductQueryCoalescingStatsDTO.builder()
+                .executed(executedCount)
+                .coalesced(coalescedCount)
+                .coalescedRate(calls == 0 ? 0 : (double) coalescedCount / calls)
+                .inFlight(inFlight.size())
+                .build();
+    }
+}
@@ -0,0 +1,258 @@
+package com.backend.service;
+
+
+import com.backend.event.OrderPlacedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Frequently bought together": in-memory co-occurrence counts of products over all orders.
+ *
+ * The matrix is sparse: each product that has been ordered owns a row, a LongIntHashMap from
+ * co-ordered product id to the number of orders containing both. Rows are found through another
+ * LongIntHashMap from product id to row number, so neither lookups nor counts box a key.
+ * Top-N related products of one product are a single pass over its row keeping the N best.
+ *
+ * Every committed order adds its product pairs right away. A full rebuild reads order_items in
+ * chunks of whole orders on a background thread at startup and then periodically, and swaps the
+ * new matrix in; orders placed while it runs are replayed onto it unless the rebuild read them.
+ * An order that commits out of id order during a rebuild may be missed until the next rebuild.
+ *
+ * Enabled together with the catalog index by app.catalog.index.enabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductRecommendationIndex {
+
+    // Items of the next chunkSize orders after a given order id, grouped by order
+    private static final String ORDER_ITEMS_CHUNK = """
+            SELECT oi.order_id, oi.product_id
+            FROM order_items oi
+            WHERE oi.order_id IN (SELECT o.id FROM orders o WHERE o.id > ? ORDER BY o.id LIMIT ?)
+            ORDER BY oi.order_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog.index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.catalog.recommendations.chunk-size:1000}")
+    private int chunkSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Matrix matrix = new Matrix();
+
+    // Orders placed while a rebuild runs, null otherwise; guarded by lock
+    private List<PlacedOrder> placedDuringRebuild;
+
+    private Executor rebuildExecutor = task -> Thread.ofVirtual().name("recommendations-rebuild").start(task);
+
+    private record PlacedOrder(long orderId, long[] productIds) {
+    }
+
+    private static final class Matrix {
+
+        // product id -> row number + 1, 0 when the product has no row
+        private final LongIntHashMap rowByProduct = new LongIntHashMap();
+        private final List<LongIntHashMap> rows = new ArrayList<>();
+        private long pairs;
+
+        void addOrder(long[] productIds) {
+            for (int i = 0; i < productIds.length; i++) {
+                for (int j = i + 1; j < productIds.length; j++) {
+                    row(productIds[i]).addTo(productIds[j], 1);
+                    row(productIds[j]).addTo(productIds[i], 1);
+                    pairs++;
+                }
+            }
+        }
+
+        LongIntHashMap existingRow(long productId) {
+            int row = rowByProduct.get(productId);
+            return row == 0 ? null : rows.get(row - 1);
+        }
+
+        private LongIntHashMap row(long productId) {
+            LongIntHashMap existing = existingRow(productId);
+            if (existing != null) {
+                return existing;
+            }
+            LongIntHashMap created = new LongIntHashMap();
+            rows.add(created);
+            rowByProduct.addTo(productId, rows.size());
+            return created;
+        }
+    }
+
+    // Keeps the limit best entries by count descending, then id ascending, in two small sorted arrays
+    private static final class TopN implements LongIntHashMap.EntryConsumer {
+
+        private final long[] ids;
+        private final int[] counts;
+        private int size;
+
+        TopN(int limit) {
+            ids = new long[limit];
+            counts = new int[limit];
+        }
+
+        @Override
+        public void accept(long id, int count) {
+            int at = size;
+            while (at > 0 && (counts[at - 1] < count || counts[at - 1] == count && ids[at - 1] > id)) {
+                at--;
+            }
+            if (at == ids.length) {
+                return;
+            }
+            int shifted = Math.min(size, ids.length - 1) - at;
+            System.arraycopy(ids, at, ids, at + 1, shifted);
+            System.arraycopy(counts, at, counts, at + 1, shifted);
+            ids[at] = id;
+            counts[at] = count;
+            size = Math.min(size + 1, ids.length);
+        }
+
+        List<Long> ids() {
+            List<Long> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(ids[i]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @return ids of up to limit products ordered together with the given one, most frequent first;
+     * empty for products never ordered together with another one
+     */
+    public List<Long> relatedProducts(Long productId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongIntHashMap row = matrix.existingRow(productId);
+            if (row == null) {
+                return List.of();
+            }
+            TopN top = new TopN(limit);
+            row.forEach(top);
+            return top.ids();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long[] productIds = event.getQuantities().keySet().stream().mapToLong(Long::longValue).toArray();
+        lock.writeLock().lock();
+        try {
+            matrix.addOrder(productIds);
+            if (placedDuringRebuild != null) {
+                placedDuringRebuild.add(new PlacedOrder(event.getOrderId(), productIds));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Recommendations updated with {} products of order {}", productIds.length, event.getOrderId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.recommendations.rebuild-interval:PT6H}",
+            initialDelayString = "${app.catalog.recommendations.rebuild-interval:PT6H}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recounts all orders into a new matrix without blocking readers or incremental updates.
+     */
+    synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            placedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Matrix rebuilt = new Matrix();
+        long lastOrderId = 0;
+        int orders = 0;
+        try {
+            List<long[]> items;
+            do {
+                items = jdbcTemplate.query(ORDER_ITEMS_CHUNK,
+                        (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, lastOrderId, chunkSize);
+                orders += addOrders(rebuilt, items);
+                if (!items.isEmpty()) {
+                    lastOrderId = items.get(items.size() - 1)[0];
+                }
+            } while (!items.isEmpty());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                placedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Recommendations rebuild failed, keeping the current counts", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (PlacedOrder order : placedDuringRebuild) {
+                if (order.orderId() > lastOrderId) {
+                    rebuilt.addOrder(order.productIds());
+                }
+            }
+            placedDuringRebuild = null;
+            matrix = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Recommendations rebuilt from {} orders: {} products, {} co-occurrences",
+                orders, rebuilt.rows.size(), rebuilt.pairs);
+    }
+
+    // Items arrive sorted by order id; adds each order's distinct products, returns the number of orders
+    private static int addOrders(Matrix target, List<long[]> items) {
+        int orders = 0;
+        Set<Long> products = new LinkedHashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            products.add(items.get(i)[1]);
+            boolean lastOfOrder = i + 1 == items.size() || items.get(i + 1)[0] != items.get(i)[0];
+            if (lastOfOrder) {
+                target.addOrder(products.stream().mapToLong(Long::longValue).toArray());
+                products.clear();
+                orders++;
+            }
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,97 @@
+package com.backend.service;
+
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Second half of product deletion: purges retired products together with the rows referencing them.
+ *
+ * ProductService.deleteProduct only retires a product (sets retired_at), which hides it from every
+ * entity query at once. This job then deletes its cart, wishlist and comment rows batchSize rows per
+ * statement, each statement in its own short transaction, so a product in thousands of carts never
+ * holds row locks on those hot tables for long. The product row goes last; its name stays taken until then.
+ * Order items keep their own copy of the product data and are not touched.
+ *
+ * A row added concurrently, e.g. by a request that loaded the product just before it was retired,
+ * makes the final delete fail on the foreign key; the product is simply purged on the next run.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductRetirementService {
+
+    private static final String RETIRED_PRODUCTS =
+            "SELECT id FROM products WHERE retired_at IS NOT NULL ORDER BY retired_at, id LIMIT ?";
+
+    private static final List<String> DEPENDENT_TABLES = List.of("cart", "wishlist", "comments");
+
+    // Postgres has no DELETE ... LIMIT, the batch is selected by primary key instead
+    private static final String DELETE_DEPENDENT_BATCH =
+            "DELETE FROM %1$s WHERE id IN (SELECT id FROM %1$s WHERE product_id = ? LIMIT ?)";
+
+    // The product_variants row goes with it through ON DELETE CASCADE
+    private static final String DELETE_RETIRED_PRODUCT = "DELETE FROM products WHERE id = ? AND retired_at IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.catalog.retirement.batch-size:500}")
+    private int batchSize;
+
+    // Only switches off the scheduled purge, purgeRetiredProducts can still be called
+    @Value("${app.catalog.retirement.enabled:true}")
+    private boolean enabled = true;
+
+    @Scheduled(fixedDelayString = "${app.catalog.retirement.purge-interval:PT1M}",
+            initialDelayString = "${app.catalog.retirement.purge-interval:PT1M}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            return;
+        }
+        purgeRetiredProducts();
+    }
+
+    /**
+     * Purges up to batchSize retired products, oldest first. Must not run inside a transaction,
+     * otherwise the batches would not commit separately.
+     *
+     * @return number of products deleted for good
+     */
+    public int purgeRetiredProducts() {
+        List<Long> retired = jdbcTemplate.queryForList(RETIRED_PRODUCTS, Long.class, batchSize);
+        int purged = 0;
+        for (Long productId : retired) {
+            long dependents = deleteDependents(productId);
+            try {
+                purged += jdbcTemplate.update(DELETE_RETIRED_PRODUCT, productId);
+                log.debug("Purged retired product {} with {} dependent rows", productId, dependents);
+            } catch (DataIntegrityViolationException e) {
+                log.info("Retired product {} was referenced again while purging, retrying on the next run", productId);
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} retired products", purged);
+        }
+        return purged;
+    }
+
+    private long deleteDependents(Long productId) {
+        long deleted = 0;
+        for (String table : DEPENDENT_TABLES) {
+            String statement = String.format(DELETE_DEPENDENT_BATCH, table);
+            int batch;
+            do {
+                batch = jdbcTemplate.update(statement, productId, batchSize);
+                deleted += batch;
+            } while (batch == batchSize);
+        }
+        return deleted;
+    }
+}
@@ -1,21 +1,53 @@
 package com.backend.service;
 
 
+import com.backend.dto.ProductBatchResponseDTO;
+import com.backend.dto.ProductBulkUpdateDTO;
+import com.backend.dto.ProductBulkUpdateResultDTO;
+import com.backend.dto.ProductFacetsDTO;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.dto.ProductPageDTO;
 import com.backend.dto.ProductResponseDTO;
+import com.backend.dto.ProductSuggestionDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.exception.InvalidRequestException;
 import com.backend.exception.ResourceNotFoundException;
 import com.backend.mapper.ProductMapper;
 import com.backend.model.PetType;
 import com.backend.model.Product;
+import com.backend.model.ProductSort;
+import com.backend.model.SearchMode;
 import com.backend.model.SizeType;
+import com.backend.repository.ProductAttributeCount;
 import com.backend.repository.ProductRepository;
 import com.backend.specification.ProductSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -24,55 +56,425 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCatalogIndex catalogIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductFilterCache filterCache;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductRecommendationIndex recommendationIndex;
+    private final ProductSimilarityIndex similarityIndex;
+    private final ProductQueryCoalescer queryCoalescer;
+    private final CatalogHealth catalogHealth;
+
+    // Read query matches straight into DTOs instead of loading managed entities and mapping them
+    @Value("${app.catalog.projection-reads:false}")
+    private boolean projectionReads;
 
     private static final String PRODUCT_NOT_FOUND = "Product with id %d not found";
+    private static final String INVALID_PAGE_SIZE = "Page limit must be between 1 and %d";
+    private static final String RELEVANCE_NOT_PAGEABLE = "Sorting by relevance is not supported for paged results";
+    private static final String INVALID_PRICE_RANGE = "Price range must have non-negative bounds with minPrice <= maxPrice";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final String INVALID_SUGGEST_LIMIT = "Suggestion limit must be between 1 and %d";
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final String INVALID_BATCH_SIZE = "Between 1 and %d product ids must be requested";
+    private static final int MAX_BATCH_IDS = 200;
+    private static final String INVALID_RELATED_LIMIT = "limit must be between 1 and %d";
+    private static final int MAX_RELATED = 20;
+    private static final String INVALID_BULK_UPDATE =
+            "A filter and a change are required: priceMultiplier > 0 or price >= 0 (not both), or a color";
 
 
-    @Transactional(readOnly = true)
     public List<ProductResponseDTO> findProducts(
             List<SizeType> size,
             List<PetType> pet,
             List<String> color,
             String search
     ) {
-        log.debug("Filtering products: size={}, pet={}, color={}, search={}", size, pet, color, search);
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .size(size)
+                .pet(pet)
+                .color(color)
+                .search(search)
+                .build();
+        return findProducts(filter, null, null);
+    }
+
+    /**
+     * Finds all products matching the filter.
+     * Served from the in-memory catalog index when it is ready, otherwise from the database,
+     * as a DTO projection when app.catalog.projection-reads is on.
+     * Results are kept in ProductFilterCache until a product change affects them.
+     *
+     * Concurrent identical queries are coalesced by ProductQueryCoalescer: one caller queries, the
+     * others wait for its result. Not transactional on purpose, so waiting callers and cache hits
+     * never hold a transaction or a connection; each repository call runs in its own read-only one.
+     *
+     * When the database fails or is too slow, see CatalogHealth, results come from the catalog index
+     * instead and are not cached. SIMILAR searches then match partially and RELEVANCE or POPULARITY
+     * results are ordered by id.
+     *
+     * @param sort optional sort key, unsorted when null
+     * @param direction sort direction, ascending when null
+     */
+    public List<ProductResponseDTO> findProducts(ProductFilterDTO filter, ProductSort sort, Sort.Direction direction) {
+        log.debug("Filtering products: size={}, pet={}, color={}, search={}, sort={} {}",
+                filter.getSize(), filter.getPet(), filter.getColor(), filter.getSearch(), sort, direction);
+        validatePriceRange(filter);
 
-        Specification<Product> spec = Specification.anyOf();
+        Sort.Direction order = direction == null ? Sort.Direction.ASC : direction;
+        ProductSort sortKey = effectiveSort(filter, sort);
+        ProductFilterKey key = ProductFilterKey.of(filter, sortKey, order);
 
-        if (size != null && !size.isEmpty()) {
-            spec = spec.and(ProductSpecification.hasSizes(size));
-            log.debug("Added size filter: {}", size);
+        if (sortKey == ProductSort.POPULARITY) {
+            // The ranking moves with every sale, which does not invalidate cached results
+            return queryCoalescer.execute(key, () -> queryProducts(filter, sortKey, order));
         }
-        if (pet != null && !pet.isEmpty()) {
-            spec = spec.and(ProductSpecification.hasPets(pet));
-            log.debug("Added pet filter: {}", pet);
+
+        List<ProductResponseDTO> cached = filterCache.get(key);
+        if (cached != null) {
+            log.debug("Returning {} cached products", cached.size());
+            return cached;
+        }
+
+        return queryCoalescer.execute(key, () -> {
+            long generation = filterCache.generation();
+            List<ProductResponseDTO> products = queryProducts(filter, sortKey, order);
+            if (!catalogHealth.servesSnapshot()) {
+                filterCache.put(key, products, generation);
+            }
+            return products;
+        });
+    }
+
+    private List<ProductResponseDTO> queryProducts(ProductFilterDTO filter, ProductSort sortKey, Sort.Direction order) {
+        if (canUseIndex(filter) && !rankedByDatabase(sortKey) || catalogHealth.servesSnapshot()) {
+            return indexProducts(filter, sortKey, order);
         }
-        if (color != null && !color.isEmpty()) {
-            spec = spec.and(ProductSpecification.hasColors(color));
-            log.debug("Added color filter: {}", color);
+        try {
+            return catalogHealth.timed(() -> databaseProducts(filter, sortKey, order));
+        } catch (DataAccessException | TransactionException e) {
+            if (!catalogIndex.isReady()) {
+                throw e;
+            }
+            log.warn("Catalog query failed, answering from the catalog index: {}", e.getMessage());
+            return indexProducts(filter, sortKey, order);
         }
+    }
 
-        if (search != null && !search.trim().isEmpty()) {
-            spec = spec.and(ProductSpecification.nameContains(search));
-            log.debug("Added search filter: {}", search);
+    // Database rankings are not available in memory, such results keep the index order by id
+    private List<ProductResponseDTO> indexProducts(ProductFilterDTO filter, ProductSort sortKey, Sort.Direction order) {
+        List<Product> products = catalogIndex.findProducts(filter);
+        if (sortKey != null && !rankedByDatabase(sortKey)) {
+            products.sort(comparator(sortKey, order));
         }
+        log.debug("Found {} products in catalog index", products.size());
+        return productMapper.toFilterDtoList(products);
+    }
+
+    private List<ProductResponseDTO> databaseProducts(ProductFilterDTO filter, ProductSort sortKey, Sort.Direction order) {
+        Specification<Product> spec = databaseSpec(filter, sortKey);
+        Sort dbSort = databaseSort(sortKey, order);
 
-        List<Product> products = productRepository.findAll(spec);
+        if (projectionReads) {
+            List<ProductResponseDTO> products = productRepository.findDtos(spec, dbSort);
+            log.debug("Found {} products matching criteria", products.size());
+            return products;
+        }
+
+        List<Product> products = dbSort.isSorted()
+                ? productRepository.findAll(spec, dbSort)
+                : productRepository.findAll(spec);
         log.debug("Found {} products matching criteria", products.size());
         return productMapper.toFilterDtoList(products);
     }
 
+    /**
+     * Passes every matching product to the sink as it is read from the database, for responses
+     * too large to hold in memory. Rows come from a DTO projection read through a cursor
+     * STREAM_FETCH_SIZE rows at a time, nothing is collected, so memory use does not depend
+     * on the number of matches. The catalog index and the filter cache are bypassed.
+     */
+    @Transactional(readOnly = true)
+    public void streamProducts(
+            ProductFilterDTO filter,
+            ProductSort sort,
+            Sort.Direction direction,
+            Consumer<ProductResponseDTO> sink
+    ) {
+        validatePriceRange(filter);
+        Sort.Direction order = direction == null ? Sort.Direction.ASC : direction;
+        ProductSort sortKey = effectiveSort(filter, sort);
+        log.debug("Streaming products: size={}, pet={}, color={}, search={}, sort={} {}",
+                filter.getSize(), filter.getPet(), filter.getColor(), filter.getSearch(), sortKey, order);
+
+        try (Stream<ProductResponseDTO> rows = productRepository.streamDtos(
+                databaseSpec(filter, sortKey), databaseSort(sortKey, order), STREAM_FETCH_SIZE)) {
+            rows.forEach(sink);
+        }
+    }
+
+    /**
+     * Returns one page of matching products using keyset pagination on (sort key, id).
+     * Unlike offset paging, the cost of a page does not grow with its position.
+     *
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param includeTotal whether to run an additional count query for the total number of matches
+     */
+    @Transactional(readOnly = true)
+    public ProductPageDTO findProductPage(
+            ProductFilterDTO filter,
+            ProductSort sort,
+            Sort.Direction direction,
+            int limit,
+            String cursor,
+            boolean includeTotal
+    ) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException(String.format(INVALID_PAGE_SIZE, MAX_PAGE_SIZE));
+        }
+        validatePriceRange(filter);
+        if (sort == ProductSort.RELEVANCE) {
+            // A float score is not a stable keyset; relevance ranking is available on /filter
+            throw new InvalidRequestException(RELEVANCE_NOT_PAGEABLE);
+        }
+
+        ProductSort sortKey = sort == null ? ProductSort.ID : sort;
+        Sort.Direction order = direction == null ? Sort.Direction.ASC : direction;
+        log.debug("Fetching product page: sort={} {}, limit={}, cursor={}", sortKey, order, limit, cursor);
+
+        Specification<Product> spec = ProductSpecification.matching(filter);
+        Specification<Product> pageSpec = spec;
+        if (cursor != null && !cursor.isBlank()) {
+            pageSpec = spec.and(ProductPageCursor.decode(cursor, sortKey, order).toSpecification());
+        }
+
+        Sort pageSort = toSort(sortKey, order);
+        // Fetch one extra row to know whether a next page exists without a count query
+        List<Product> rows = productRepository.findBy(pageSpec, query -> query.sortBy(pageSort).limit(limit + 1).all());
+
+        boolean hasNext = rows.size() > limit;
+        List<Product> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? ProductPageCursor.encode(sortKey, order, page.get(page.size() - 1)) : null;
+        Long totalCount = includeTotal ? productRepository.count(spec) : null;
+
+        log.debug("Returning {} products, hasNext={}", page.size(), hasNext);
+        return ProductPageDTO.builder()
+                .items(productMapper.toFilterDtoList(page))
+                .nextCursor(nextCursor)
+                .totalCount(totalCount)
+                .build();
+    }
+
+    /**
+     * Counts products per size, pet and color for the current filter state.
+     * Each attribute is counted with all other criteria applied but not its own selection,
+     * so the numbers match what the user gets when toggling that checkbox.
+     *
+     * Computed with bitmap intersections in the catalog index, or from one grouped query
+     * (GROUP BY size mask, pet, color) folded in memory. A product offered in several sizes
+     * is counted once under each of them.
+     */
     @Transactional(readOnly = true)
+    public ProductFacetsDTO getFacets(ProductFilterDTO filter) {
+        log.debug("Counting facets: size={}, pet={}, color={}, search={}",
+                filter.getSize(), filter.getPet(), filter.getColor(), filter.getSearch());
+        validatePriceRange(filter);
+
+        if (canUseIndex(filter)) {
+            return catalogIndex.getFacets(filter);
+        }
+
+        // Attribute selections are applied while folding, only the other criteria go to SQL
+        ProductFilterDTO withoutAttributes = filter.toBuilder().size(null).pet(null).color(null).build();
+        List<ProductAttributeCount> rows = productRepository.countByAttributes(
+                ProductSpecification.matching(withoutAttributes)
+        );
+
+        Map<SizeType, Long> sizeCounts = zeroCounts(SizeType.class);
+        Map<PetType, Long> petCounts = zeroCounts(PetType.class);
+        Map<String, Long> colorCounts = new TreeMap<>();
+        long total = 0;
+
+        int selectedSizes = SizeType.maskOf(filter.getSize());
+        for (ProductAttributeCount row : rows) {
+            boolean sizeMatches = selectedSizes == 0 || (row.getSizeMask() & selectedSizes) != 0;
+            boolean petMatches = matchesAny(filter.getPet(), row.getPet());
+            boolean colorMatches = matchesAny(filter.getColor(), row.getColor());
+
+            if (petMatches && colorMatches) {
+                for (SizeType size : SizeType.fromMask(row.getSizeMask())) {
+                    sizeCounts.merge(size, row.getCount(), Long::sum);
+                }
+            }
+            if (sizeMatches && colorMatches) {
+                petCounts.merge(row.getPet(), row.getCount(), Long::sum);
+            }
+            if (sizeMatches && petMatches && row.getColor() != null) {
+                colorCounts.merge(row.getColor(), row.getCount(), Long::sum);
+            }
+            if (sizeMatches && petMatches && colorMatches) {
+                total += row.getCount();
+            }
+        }
+
+        return ProductFacetsDTO.builder()
+                .size(sizeCounts)
+                .pet(petCounts)
+                .color(colorCounts)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * Name completions for the search box: products with a name word starting with the prefix.
+     * Answered from ProductSuggestIndex without a database round trip; while the index is not
+     * available only names starting with the prefix are found, with a LIKE 'prefix%' query.
+     * Not transactional, so a keystroke answered by the index never takes a pooled connection;
+     * the fallback query runs in the repository's own read-only transaction.
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestException(String.format(INVALID_SUGGEST_LIMIT, MAX_SUGGESTIONS));
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (suggestIndex.isReady()) {
+            return suggestIndex.suggest(prefix, limit);
+        }
+
+        List<Product> products = productRepository.findBy(
+                ProductSpecification.nameStartsWith(prefix),
+                query -> query.sortBy(Sort.by("name")).limit(limit).all()
+        );
+        return products.stream()
+                .map(product -> new ProductSuggestionDTO(product.getId(), product.getName()))
+                .toList();
+    }
+
+    /**
+     * Not transactional, so a database that cannot hand out a connection fails inside the method
+     * and the product can be answered from the catalog index instead, like in findProducts.
+     * Always loads the entity by id, even with projection reads, as that is answered from the
+     * second-level cache once the product was loaded.
+     */
     public ProductResponseDTO getProductById(Long id) {
         log.debug("Fetching product with id: {}", id);
 
-        Product product = productRepository.findById(id)
+        Optional<ProductResponseDTO> product;
+        if (catalogHealth.servesSnapshot()) {
+            product = indexProduct(id);
+        } else {
+            try {
+                product = catalogHealth.timed(() -> productRepository.findById(id).map(productMapper::toFilterDto));
+            } catch (DataAccessException | TransactionException e) {
+                if (!catalogIndex.isReady()) {
+                    throw e;
+                }
+                log.warn("Product lookup failed, answering from the catalog index: {}", e.getMessage());
+                product = indexProduct(id);
+            }
+        }
+
+        return product.orElseThrow(() -> {
+            log.error("Product not found: {}", id);
+            return new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id));
+        });
+    }
+
+    /**
+     * Resolves many products in one call: from the catalog index when it is ready, otherwise with
+     * a single IN query. Products come back in request order with duplicate ids collapsed,
+     * ids that do not exist are listed in missingIds instead of failing the whole request.
+     * Not transactional: an answer from the index needs no connection, the IN query runs in the
+     * repository's own read-only transaction.
+     */
+    public ProductBatchResponseDTO getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_IDS || ids.contains(null)) {
+            throw new InvalidRequestException(String.format(INVALID_BATCH_SIZE, MAX_BATCH_IDS));
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        log.debug("Fetching {} products by id", requested.size());
+
+        Map<Long, ProductResponseDTO> found = new HashMap<>();
+        if (catalogIndex.isReady()) {
+            catalogIndex.findByIds(requested).forEach((id, product) -> found.put(id, productMapper.toFilterDto(product)));
+        } else if (projectionReads) {
+            productRepository.findDtos(ProductSpecification.hasIds(requested), Sort.unsorted())
+                    .forEach(product -> found.put(product.getId(), product));
+        } else {
+            productRepository.findAllById(requested)
+                    .forEach(product -> found.put(product.getId(), productMapper.toFilterDto(product)));
+        }
+
+        List<ProductResponseDTO> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            ProductResponseDTO product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return ProductBatchResponseDTO.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    /**
+     * Products most often ordered together with the given one, most frequent first.
+     * Counts come from ProductRecommendationIndex in memory, products are resolved like
+     * getProductsByIds. Empty for products never ordered with another one.
+     * Not transactional, like getProductsByIds, so answers from memory need no connection.
+     */
+    public List<ProductResponseDTO> getFrequentlyBoughtTogether(Long productId, int limit) {
+        if (limit < 1 || limit > MAX_RELATED) {
+            throw new InvalidRequestException(String.format(INVALID_RELATED_LIMIT, MAX_RELATED));
+        }
+        List<Long> related = recommendationIndex.relatedProducts(productId, limit);
+        log.debug("Found {} products bought together with product {}", related.size(), productId);
+        if (related.isEmpty()) {
+            return List.of();
+        }
+        return getProductsByIds(related).getProducts();
+    }
+
+    /**
+     * Products for the same pet with the closest size, color and price, most similar first.
+     * Ranked by ProductSimilarityIndex in memory and resolved like getProductsByIds; while the
+     * index is not available the same ranking runs over the same-pet products read from the database.
+     * Not transactional, like getProductById, so a ranking from the index needs no connection.
+     */
+    public List<ProductResponseDTO> getSimilarProducts(Long productId, int limit) {
+        if (limit < 1 || limit > MAX_RELATED) {
+            throw new InvalidRequestException(String.format(INVALID_RELATED_LIMIT, MAX_RELATED));
+        }
+
+        if (similarityIndex.isReady()) {
+            if (!similarityIndex.contains(productId)) {
+                log.error("Product not found: {}", productId);
+                throw new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, productId));
+            }
+            List<Long> similar = similarityIndex.similarProducts(productId, limit);
+            log.debug("Found {} products similar to product {}", similar.size(), productId);
+            return similar.isEmpty() ? List.of() : getProductsByIds(similar).getProducts();
+        }
+
+        Product product = productRepository.findById(productId)
                 .orElseThrow(() -> {
-                    log.error("Product not found: {}", id);
-                    return new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id));
+                    log.error("Product not found: {}", productId);
+                    return new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, productId));
                 });
+        List<Product> candidates = productRepository.findAll(ProductSpecification.hasPets(List.of(product.getPet())));
+        Map<Long, Product> byId = new HashMap<>();
+        candidates.forEach(candidate -> byId.put(candidate.getId(), candidate));
 
-        return productMapper.toFilterDto(product);
+        List<Long> similar = similarityIndex.rank(product, candidates, limit);
+        log.debug("Ranked {} products similar to product {} from the database", similar.size(), productId);
+        return productMapper.toFilterDtoList(similar.stream().map(byId::get).toList());
     }
 
     @Transactional
@@ -81,6 +483,7 @@ public class ProductService {
 
         Product product = productMapper.toEntity(dto);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.upserted(savedProduct));
 
         log.debug("Product created with id: {}", savedProduct.getId());
         return productMapper.toFilterDto(savedProduct);
@@ -97,22 +500,156 @@ public class ProductService {
                 });
 
         productMapper.updateProductFromDto(dto, product);
+        eventPublisher.publishEvent(ProductChangedEvent.upserted(product));
 
         log.debug("Product updated: {}", product.getId());
 
         return productMapper.toFilterDto(product);
     }
 
+    /**
+     * Retires the product: it disappears from the catalog, carts, wishlists and orders right away,
+     * its dependent rows and the product row itself are purged later by ProductRetirementService.
+     */
     @Transactional
     public void deleteProduct(Long id) {
         log.debug("Deleting product with id: {}", id);
 
-        if (!productRepository.existsById(id)) {
+        if (productRepository.retire(id, LocalDateTime.now()) == 0) {
             log.error("Product not found for deletion: {}", id);
             throw new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id));
         }
 
-        productRepository.deleteById(id);
-        log.debug("Product deleted: {}", id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+        log.debug("Product retired: {}", id);
+    }
+
+    /**
+     * Applies one change to every product matching the filter with a single UPDATE ... WHERE,
+     * instead of loading and dirty-checking the products one by one. Catalog listeners are
+     * notified once with a BULK event, which makes every in-memory index and cache reload.
+     */
+    @Transactional
+    public ProductBulkUpdateResultDTO bulkUpdate(ProductBulkUpdateDTO update) {
+        validateBulkUpdate(update);
+        ProductFilterDTO filter = update.getFilter();
+        log.debug("Bulk updating products: size={}, pet={}, color={}, search={}, multiplier={}, price={}, newColor={}",
+                filter.getSize(), filter.getPet(), filter.getColor(), filter.getSearch(),
+                update.getPriceMultiplier(), update.getPrice(), update.getColor());
+
+        int updated = productRepository.updateMatching(ProductSpecification.matching(filter),
+                update.getPriceMultiplier(), update.getPrice(), update.getColor());
+        if (updated > 0) {
+            eventPublisher.publishEvent(ProductChangedEvent.bulk());
+        }
+
+        log.info("Bulk update changed {} products", updated);
+        return new ProductBulkUpdateResultDTO(updated);
+    }
+
+    private static void validateBulkUpdate(ProductBulkUpdateDTO update) {
+        BigDecimal multiplier = update.getPriceMultiplier();
+        BigDecimal price = update.getPrice();
+        boolean hasChange = multiplier != null || price != null || update.getColor() != null;
+        if (update.getFilter() == null
+                || !hasChange
+                || multiplier != null && price != null
+                || multiplier != null && multiplier.signum() <= 0
+                || price != null && price.signum() < 0
+                || update.getColor() != null && update.getColor().isBlank()) {
+            throw new InvalidRequestException(INVALID_BULK_UPDATE);
+        }
+        validatePriceRange(update.getFilter());
+    }
+
+    // Bounds are optional, a given bound must not be negative and the range must not be empty
+    private static void validatePriceRange(ProductFilterDTO filter) {
+        BigDecimal min = filter.getMinPrice();
+        BigDecimal max = filter.getMaxPrice();
+        if (min != null && min.signum() < 0
+                || max != null && max.signum() < 0
+                || min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidRequestException(INVALID_PRICE_RANGE);
+        }
+    }
+
+    // Scores the index does not hold: trigram similarity and sales popularity
+    private static boolean rankedByDatabase(ProductSort sortKey) {
+        return sortKey == ProductSort.RELEVANCE || sortKey == ProductSort.POPULARITY;
+    }
+
+    // Relevance is a similarity score to the search query, without a query there is nothing to rank
+    private static ProductSort effectiveSort(ProductFilterDTO filter, ProductSort sort) {
+        boolean hasSearch = filter.getSearch() != null && !filter.getSearch().trim().isEmpty();
+        return sort == ProductSort.RELEVANCE && !hasSearch ? null : sort;
+    }
+
+    private static Specification<Product> databaseSpec(ProductFilterDTO filter, ProductSort sortKey) {
+        Specification<Product> spec = ProductSpecification.matching(filter);
+        if (sortKey == ProductSort.RELEVANCE) {
+            spec = spec.and(ProductSpecification.orderBySimilarity(filter.getSearch()));
+        }
+        return spec;
+    }
+
+    // Relevance ordering is set by the specification itself
+    private static Sort databaseSort(ProductSort sortKey, Sort.Direction order) {
+        return sortKey == null || sortKey == ProductSort.RELEVANCE ? Sort.unsorted() : toSort(sortKey, order);
+    }
+
+    /**
+     * Builds the ordering used by both list and page queries.
+     * The id is always the tie-breaker so the order is total and keyset cursors are stable.
+     */
+    private static Sort toSort(ProductSort sort, Sort.Direction direction) {
+        Sort byId = Sort.by(direction, "id");
+        return sort == ProductSort.ID ? byId : Sort.by(direction, sort.getProperty()).and(byId);
+    }
+
+    /**
+     * In-memory counterpart of toSort for results served from the catalog index.
+     * Names are compared like the database collation orders them, case and accents only break ties,
+     * so a list does not change order when the index stands in for the database.
+     */
+    private static Comparator<Product> comparator(ProductSort sort, Sort.Direction direction) {
+        Comparator<Product> byKey = switch (sort) {
+            case ID -> Comparator.comparing(Product::getId);
+            case PRICE -> Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+            case NAME -> Comparator.comparing(Product::getName, nameCollator()).thenComparing(Product::getId);
+            case RELEVANCE, POPULARITY -> throw new IllegalArgumentException(sort + " is ranked by the database");
+        };
+        return direction.isAscending() ? byKey : byKey.reversed();
+    }
+
+    // One collator per sort, a shared instance would synchronize every comparison across requests
+    private static Collator nameCollator() {
+        Collator collator = Collator.getInstance(Locale.ENGLISH);
+        collator.setStrength(Collator.TERTIARY);
+        return collator;
+    }
+
+    /**
+     * Trigram similarity is computed by pg_trgm, so SIMILAR searches go to the database while it is healthy.
+     */
+    private boolean canUseIndex(ProductFilterDTO filter) {
+        boolean similarSearch = filter.getSearchMode() == SearchMode.SIMILAR
+                && filter.getSearch() != null && !filter.getSearch().trim().isEmpty();
+        return catalogIndex.isReady() && !similarSearch;
+    }
+
+    private Optional<ProductResponseDTO> indexProduct(Long id) {
+        return Optional.ofNullable(catalogIndex.findByIds(List.of(id)).get(id)).map(productMapper::toFilterDto);
+    }
+
+    private static <T> boolean matchesAny(List<T> selected, T value) {
+        return selected == null || selected.isEmpty() || selected.contains(value);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> zeroCounts(Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counts.put(value, 0L);
+        }
+        return counts;
     }
 }
@@ -0,0 +1,324 @@
+package com.backend.service;
+
+
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+import com.backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Similar products": ranks products by how close their attributes are to a given product.
+ *
+ * Only products for the same pet are candidates. Among them a product scores for a shared size
+ * (less for a neighbouring one, comparing the closest sizes both are offered in), the same color
+ * and a close price; see score. Features are kept
+ * in parallel primitive arrays ordered by product id, so a query is a binary search for the
+ * product followed by one linear pass over the arrays feeding a bounded heap of the k best,
+ * with no object allocated per candidate and no database access.
+ *
+ * Readers use an immutable snapshot without locking. Writers copy the arrays with the changed
+ * product inserted, replaced or removed (linear, writes are rare) and publish the copy.
+ * Loaded and kept up to date from ProductChangedEvent, which every ProductService write path
+ * publishes, like ProductCatalogIndex and switched by the same property.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSimilarityIndex {
+
+    static final double SAME_SIZE = 3.0;
+    static final double NEIGHBOUR_SIZE = 1.5;
+    static final double SAME_COLOR = 2.0;
+    static final double CLOSE_PRICE = 2.0;
+
+    private static final int NO_COLOR = -1;
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.catalog.index.enabled:false}")
+    private boolean enabled;
+
+    private volatile Features features;
+
+    // Codes are never reused, so snapshots sharing this dictionary stay consistent
+    private final Map<String, Integer> colorCodes = new ConcurrentHashMap<>();
+
+    private static final Features EMPTY = new Features(new long[0], new byte[0], new byte[0], new int[0], new long[0]);
+
+    // Parallel arrays ordered by id: pet ordinal, size mask, color code, price in cents
+    private record Features(long[] ids, byte[] pets, byte[] sizeMasks, int[] colors, long[] cents) {
+
+        int size() {
+            return ids.length;
+        }
+
+        Features copy(int length) {
+            return new Features(Arrays.copyOf(ids, length), Arrays.copyOf(pets, length), Arrays.copyOf(sizeMasks, length),
+                    Arrays.copyOf(colors, length), Arrays.copyOf(cents, length));
+        }
+    }
+
+    // Bounded min-heap keeping the k best (score descending, then id ascending); the worst kept is at the root
+    private static final class TopK {
+
+        private final long[] ids;
+        private final double[] scores;
+        private int size;
+
+        TopK(int k) {
+            ids = new long[k];
+            scores = new double[k];
+        }
+
+        void offer(long id, double score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (ids.length > 0 && worse(ids[0], scores[0], id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        // Drains the heap, best first
+        List<Long> ids() {
+            Long[] ordered = new Long[size];
+            while (size > 0) {
+                ordered[size - 1] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return Arrays.asList(ordered);
+        }
+
+        private void siftUp(int at) {
+            while (at > 0) {
+                int parent = (at - 1) / 2;
+                if (!worse(ids[at], scores[at], ids[parent], scores[parent])) {
+                    return;
+                }
+                swap(at, parent);
+                at = parent;
+            }
+        }
+
+        private void siftDown(int at) {
+            while (true) {
+                int worst = at;
+                for (int child = 2 * at + 1; child <= 2 * at + 2 && child < size; child++) {
+                    if (worse(ids[child], scores[child], ids[worst], scores[worst])) {
+                        worst = child;
+                    }
+                }
+                if (worst == at) {
+                    return;
+                }
+                swap(at, worst);
+                at = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+
+        private static boolean worse(long id, double score, long otherId, double otherScore) {
+            return score < otherScore || score == otherScore && id > otherId;
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && features != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        rebuild(productRepository.findAll());
+    }
+
+    public synchronized void rebuild(Collection<Product> products) {
+        List<Product> ordered = new ArrayList<>(products);
+        ordered.sort(Comparator.comparing(Product::getId));
+
+        Features rebuilt = EMPTY.copy(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            setFeatures(rebuilt, i, ordered.get(i));
+        }
+        features = rebuilt;
+        log.info("Similarity index loaded with {} products", rebuilt.size());
+    }
+
+    // Before CatalogVersion, like the other catalog listeners
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.getType()) {
+            case UPSERTED -> upsert(event.getProduct());
+            case DELETED -> remove(event.getProductId());
+            case BULK -> rebuild(productRepository.findAll());
+        }
+    }
+
+    public synchronized void upsert(Product product) {
+        Features current = features == null ? EMPTY : features;
+        int at = Arrays.binarySearch(current.ids(), product.getId());
+        Features updated;
+        if (at >= 0) {
+            updated = current.copy(current.size());
+        } else {
+            at = -at - 1;
+            updated = current.copy(current.size() + 1);
+            shift(current, at, updated, at + 1, current.size() - at);
+        }
+        setFeatures(updated, at, product);
+        features = updated;
+        log.debug("Similarity index updated for product {}", product.getId());
+    }
+
+    public synchronized void remove(Long productId) {
+        Features current = features == null ? EMPTY : features;
+        int at = Arrays.binarySearch(current.ids(), productId);
+        if (at < 0) {
+            return;
+        }
+        Features updated = current.copy(current.size() - 1);
+        shift(current, at + 1, updated, at, current.size() - at - 1);
+        features = updated;
+        log.debug("Product {} removed from similarity index", productId);
+    }
+
+    /**
+     * @return ids of up to limit products most similar to the given one, best first;
+     * empty when the product is not indexed
+     */
+    public List<Long> similarProducts(Long productId, int limit) {
+        Features current = features == null ? EMPTY : features;
+        int target = Arrays.binarySearch(current.ids(), productId);
+        if (target < 0) {
+            return List.of();
+        }
+
+        byte pet = current.pets()[target];
+        int sizeMask = current.sizeMasks()[target];
+        int color = current.colors()[target];
+        long cents = current.cents()[target];
+
+        TopK top = new TopK(limit);
+        for (int i = 0; i < current.size(); i++) {
+            if (i == target || current.pets()[i] != pet) {
+                continue;
+            }
+            boolean sameColor = color != NO_COLOR && current.colors()[i] == color;
+            top.offer(current.ids()[i], score(sizeDistance(sizeMask, current.sizeMasks()[i]), sameColor, cents, current.cents()[i]));
+        }
+        return top.ids();
+    }
+
+    /**
+     * Same ranking as similarProducts over the given candidates, for when the index is not ready.
+     * Candidates for another pet and the product itself are skipped.
+     */
+    public List<Long> rank(Product product, Collection<Product> candidates, int limit) {
+        long cents = toCents(product.getPrice());
+        TopK top = new TopK(limit);
+        for (Product candidate : candidates) {
+            if (candidate.getId().equals(product.getId()) || candidate.getPet() != product.getPet()) {
+                continue;
+            }
+            boolean sameColor = product.getColor() != null && product.getColor().equals(candidate.getColor());
+            int sizeDistance = sizeDistance(product.getSizeMask(), candidate.getSizeMask());
+            top.offer(candidate.getId(), score(sizeDistance, sameColor, cents, toCents(candidate.getPrice())));
+        }
+        return top.ids();
+    }
+
+    public boolean contains(Long productId) {
+        Features current = features;
+        return current != null && Arrays.binarySearch(current.ids(), productId) >= 0;
+    }
+
+    public int size() {
+        Features current = features;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Scores a candidate between 0 and SAME_SIZE + SAME_COLOR + CLOSE_PRICE. The price part falls
+     * linearly with the relative price difference, so 10 vs 12 is as close as 100 vs 120.
+     */
+    static double score(int sizeDistance, boolean sameColor, long cents, long candidateCents) {
+        double score = sizeDistance == 0 ? SAME_SIZE : sizeDistance == 1 ? NEIGHBOUR_SIZE : 0;
+        if (sameColor) {
+            score += SAME_COLOR;
+        }
+        long higher = Math.max(cents, candidateCents);
+        double relativeDistance = higher <= 0 ? 0 : (double) Math.abs(cents - candidateCents) / higher;
+        return score + CLOSE_PRICE * (1 - relativeDistance);
+    }
+
+    /**
+     * @return how many sizes apart the closest sizes of two size masks are, 0 when they share a size,
+     * the number of sizes when either mask is empty
+     */
+    static int sizeDistance(int sizeMask, int otherMask) {
+        int sizes = SizeType.values().length;
+        for (int distance = 0; distance < sizes; distance++) {
+            if (((sizeMask << distance) & otherMask) != 0 || ((sizeMask >>> distance) & otherMask) != 0) {
+                return distance;
+            }
+        }
+        return sizes;
+    }
+
+    // Must be called while holding the monitor
+    private void setFeatures(Features target, int at, Product product) {
+        target.ids()[at] = product.getId();
+        target.pets()[at] = (byte) product.getPet().ordinal();
+        target.sizeMasks()[at] = (byte) product.getSizeMask();
+        target.colors()[at] = product.getColor() == null
+                ? NO_COLOR
+                : colorCodes.computeIfAbsent(product.getColor(), c -> colorCodes.size());
+        target.cents()[at] = toCents(product.getPrice());
+    }
+
+    private static void shift(Features from, int fromIndex, Features to, int toIndex, int length) {
+        System.arraycopy(from.ids(), fromIndex, to.ids(), toIndex, length);
+        System.arraycopy(from.pets(), fromIndex, to.pets(), toIndex, length);
+        System.arraycopy(from.sizeMasks(), fromIndex, to.sizeMasks(), toIndex, length);
+        System.arraycopy(from.colors(), fromIndex, to.colors(), toIndex, length);
+        System.arraycopy(from.cents(), fromIndex, to.cents(), toIndex, length);
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+}
@@ -0,0 +1,187 @@
+package com.backend.service;
+
+
+import com.backend.dto.ProductSuggestionDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.Product;
+import com.backend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * In-memory prefix index over product names for search-box autocompletion.
+ *
+ * Every word start of a lowercased name is a key: "Dog Toy" is stored under "dog toy" and "toy",
+ * so typing "to" completes it as well. Keys live in one sorted array; a prefix query is a binary
+ * search for the first key starting with the prefix followed by a walk over the next keys until
+ * k distinct products are found, i.e. O(log n + k) with no database access.
+ *
+ * Readers use an immutable snapshot without locking. Writers build a new snapshot by merging the
+ * changed product's keys into the old arrays (linear, writes are rare) and publish it atomically.
+ * Loaded and kept up to date like ProductCatalogIndex and switched by the same property.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestIndex {
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.catalog.index.enabled:false}")
+    private boolean enabled;
+
+    private volatile Snapshot snapshot;
+
+    private static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], new String[0]);
+
+    // Parallel arrays ordered by (key, id); names[i] is the display name of product ids[i]
+    private record Snapshot(String[] keys, long[] ids, String[] names) {
+
+        int size() {
+            return keys.length;
+        }
+    }
+
+    private record Key(String key, long id, String name) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        rebuild(productRepository.findAll());
+    }
+
+    public synchronized void rebuild(Collection<Product> products) {
+        List<Key> keys = new ArrayList<>();
+        for (Product product : products) {
+            keys.addAll(keysOf(product.getId(), product.getName()));
+        }
+        Collections.sort(keys);
+        snapshot = toSnapshot(keys);
+        log.info("Suggest index loaded with {} keys for {} products", keys.size(), products.size());
+    }
+
+    // Before CatalogVersion, like the other catalog listeners
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.getType()) {
+            case UPSERTED -> replace(event.getProductId(), event.getProduct().getName());
+            case DELETED -> replace(event.getProductId(), null);
+            case BULK -> rebuild(productRepository.findAll());
+        }
+    }
+
+    /**
+     * @return up to limit products having a name word that starts with the prefix,
+     * ordered by the completed text
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        Snapshot current = snapshot == null ? EMPTY : snapshot;
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, String> found = new LinkedHashMap<>();
+        for (int i = firstAtLeast(current.keys(), normalized);
+             i < current.size() && found.size() < limit && current.keys()[i].startsWith(normalized);
+             i++) {
+            found.putIfAbsent(current.ids()[i], current.names()[i]);
+        }
+
+        List<ProductSuggestionDTO> suggestions = new ArrayList<>(found.size());
+        found.forEach((id, name) -> suggestions.add(new ProductSuggestionDTO(id, name)));
+        return suggestions;
+    }
+
+    // Replaces the keys of one product, null name removes it; O(n) merge into a new snapshot
+    private synchronized void replace(Long productId, String name) {
+        Snapshot current = snapshot == null ? EMPTY : snapshot;
+        List<Key> added = name == null ? new ArrayList<>() : keysOf(productId, name);
+        Collections.sort(added);
+
+        List<Key> merged = new ArrayList<>(current.size() + added.size());
+        int next = 0;
+        for (int i = 0; i < current.size(); i++) {
+            if (current.ids()[i] == productId) {
+                continue;
+            }
+            Key existing = new Key(current.keys()[i], current.ids()[i], current.names()[i]);
+            while (next < added.size() && added.get(next).compareTo(existing) < 0) {
+                merged.add(added.get(next++));
+            }
+            merged.add(existing);
+        }
+        merged.addAll(added.subList(next, added.size()));
+        snapshot = toSnapshot(merged);
+        log.debug("Suggest index updated for product {}", productId);
+    }
+
+    private static List<Key> keysOf(Long productId, String name) {
+        String lower = normalize(name);
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < lower.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(lower.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(lower.charAt(i - 1)));
+            if (wordStart) {
+                keys.add(new Key(lower.substring(i), productId, name));
+            }
+        }
+        return keys;
+    }
+
+    private static Snapshot toSnapshot(List<Key> sorted) {
+        String[] keys = new String[sorted.size()];
+        long[] ids = new long[sorted.size()];
+        String[] names = new String[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            keys[i] = sorted.get(i).key();
+            ids[i] = sorted.get(i).id();
+            names[i] = sorted.get(i).name();
+        }
+        return new Snapshot(keys, ids, names);
+    }
+
+    private static int firstAtLeast(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT).trim();
+    }
+}
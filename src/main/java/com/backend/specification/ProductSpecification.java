@@ -1,11 +1,19 @@
 package com.backend.specification;
 
 
+import com.backend.dto.ProductFilterDTO;
 import com.backend.model.PetType;
 import com.backend.model.Product;
+import com.backend.model.SearchMode;
 import com.backend.model.SizeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,8 +28,45 @@ import java.util.List;
  */
 public interface ProductSpecification {
 
+    /**
+     * Combines all non-empty criteria of the filter with AND.
+     * Empty lists and blank search are ignored, so an empty filter matches every product.
+     */
+    static Specification<Product> matching(ProductFilterDTO filter) {
+        Specification<Product> spec = Specification.anyOf();
+
+        if (filter.getSize() != null && !filter.getSize().isEmpty()) {
+            spec = spec.and(hasSizes(filter.getSize()));
+        }
+        if (filter.getPet() != null && !filter.getPet().isEmpty()) {
+            spec = spec.and(hasPets(filter.getPet()));
+        }
+        if (filter.getColor() != null && !filter.getColor().isEmpty()) {
+            spec = spec.and(hasColors(filter.getColor()));
+        }
+        if (filter.getSearch() != null && !filter.getSearch().trim().isEmpty()) {
+            spec = spec.and(filter.getSearchMode() == SearchMode.SIMILAR
+                    ? nameSimilarTo(filter.getSearch())
+                    : nameContains(filter.getSearch()));
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            spec = spec.and(priceBetween(filter.getMinPrice(), filter.getMaxPrice()));
+        }
+        return spec;
+    }
+
+    static Specification<Product> hasIds(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Products offered in at least one of the sizes: one AND against product_variants.size_mask.
+     */
     static Specification<Product> hasSizes(List<SizeType> sizes) {
-        return (root, query, cb) -> root.get("size").in(sizes);
+        return (root, query, cb) -> cb.notEqual(
+                cb.function("bitand", Integer.class, root.get("sizeMask"), cb.literal(SizeType.maskOf(sizes))),
+                0
+        );
     }
 
     static Specification<Product> hasPets(List<PetType> pets) {
@@ -32,6 +77,23 @@ public interface ProductSpecification {
         return (root, query, cb) -> root.get("color").in(colors);
     }
 
+    /**
+     * Inclusive price range, either bound may be null for an open range.
+     * Served by the (price, id) and (pet, price) indexes.
+     */
+    static Specification<Product> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> {
+            Path<BigDecimal> price = root.get("price");
+            if (minPrice == null) {
+                return cb.lessThanOrEqualTo(price, maxPrice);
+            }
+            if (maxPrice == null) {
+                return cb.greaterThanOrEqualTo(price, minPrice);
+            }
+            return cb.between(price, minPrice, maxPrice);
+        };
+    }
+
     static Specification<Product> nameContains(String searchQuery) {
         return (root, query, cb) -> {
 
@@ -42,4 +104,72 @@ public interface ProductSpecification {
             return cb.like(cb.lower(root.get("name")), pattern);
         };
     }
+
+    /**
+     * Case-insensitive match at the start of the name, used when the suggest index is not available.
+     */
+    static Specification<Product> nameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), prefix.toLowerCase().trim() + "%");
+    }
+
+    /**
+     * Typo-tolerant match using the pg_trgm "%" operator on lower(name).
+     * Uses the idx_products_name_trgm GIN index instead of a sequential scan.
+     */
+    static Specification<Product> nameSimilarTo(String searchQuery) {
+        return (root, query, cb) -> cb.isTrue(cb.function(
+                "trgm_similar", Boolean.class,
+                cb.lower(root.get("name")), cb.literal(searchQuery.toLowerCase().trim())
+        ));
+    }
+
+    /**
+     * Orders results by trigram similarity to the search query, best match first, id as tie-breaker.
+     * Adds no predicate; skipped for count queries, which must not carry an ORDER BY.
+     */
+    static Specification<Product> orderBySimilarity(String searchQuery) {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                Expression<Double> similarity = cb.function(
+                        "similarity", Double.class,
+                        cb.lower(root.get("name")), cb.literal(searchQuery.toLowerCase().trim())
+                );
+                query.orderBy(cb.desc(similarity), cb.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Keyset (seek) predicate for ordering by id only: rows strictly after the given id.
+     */
+    static Specification<Product> afterId(Long id, boolean ascending) {
+        return (root, query, cb) -> ascending
+                ? cb.greaterThan(root.get("id"), id)
+                : cb.lessThan(root.get("id"), id);
+    }
+
+    /**
+     * Keyset (seek) predicate for ordering by (property, id):
+     * rows whose key is beyond the given value, or equal to it with a greater id.
+     * Backed by the composite (property, id) indexes, so a page never scans skipped rows.
+     */
+    static <Y extends Comparable<? super Y>> Specification<Product> after(
+            String property, Y value, Long id, boolean ascending
+    ) {
+        return (root, query, cb) -> {
+            Path<Y> key = root.get(property);
+            Path<Long> idPath = root.get("id");
+            return cb.or(
+                    beyond(cb, key, value, ascending),
+                    cb.and(cb.equal(key, value), beyond(cb, idPath, id, ascending))
+            );
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate beyond(
+            CriteriaBuilder cb, Path<Y> path, Y value, boolean ascending
+    ) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
 }
@@ -0,0 +1,18 @@
+package com.backend;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests with the in-memory catalog indexes, the filter cache and the response cache
+ * enabled as in production. Subclasses share one application context.
+ */
+@TestPropertySource(properties = {
+        "app.catalog.index.enabled=true",
+        "app.catalog.snapshot.path=",
+        "app.catalog.filter-cache.max-entries=100",
+        "app.catalog.response-cache.max-bytes=1MB",
+        // Degraded mode is entered and left by the tests only
+        "app.catalog.degraded.probe-interval=PT1H"
+})
+public abstract class AbstractCatalogIndexIntegrationTest extends AbstractIntegrationTest {
+}
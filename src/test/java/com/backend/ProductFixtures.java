@@ -0,0 +1,27 @@
+package com.backend;
+
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+
+import java.math.BigDecimal;
+
+/**
+ * Products for tests: a red dog product in size M for 9.99.
+ * Tests set only the fields they depend on on the returned builder.
+ */
+public final class ProductFixtures {
+
+    private ProductFixtures() {
+    }
+
+    public static Product.ProductBuilder product(String name) {
+        return Product.builder()
+                .name(name)
+                .size(SizeType.M)
+                .pet(PetType.DOG)
+                .color("Red")
+                .price(new BigDecimal("9.99"))
+                .img("img.png");
+    }
+}
@@ -0,0 +1,136 @@
+package com.backend.controller;
+
+import com.backend.AbstractIntegrationTest;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Transactional
+class AdminProductControllerIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${admin.secret}")
+    private String adminSecret;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void importProducts_shouldInsertNdjsonRowsAndReportErrors() throws Exception {
+        String ndjson = """
+                {"name":"Dog Toy","size":"M","pet":"DOG","color":"Red","price":19.99,"img":"dog.png"}
+                {"name":"Cat Bowl","size":"S","pet":"CAT","color":"Blue","img":"cat.png"}
+                """;
+
+        mockMvc.perform(post("/api/admin/products/import")
+                        .param("password", adminSecret)
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("price must be greater than 0"));
+
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void importProducts_shouldInsertCsvRows() throws Exception {
+        String csv = """
+                name,size,pet,color,price,img
+                Dog Toy,M,DOG,Red,19.99,dog.png
+                Cat Bowl,S,CAT,Blue,9.99,cat.png
+                """;
+
+        mockMvc.perform(post("/api/admin/products/import")
+                        .param("password", adminSecret)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    void importProducts_shouldReturnBadRequest_whenCsvHeaderInvalid() throws Exception {
+        mockMvc.perform(post("/api/admin/products/import")
+                        .param("password", adminSecret)
+                        .contentType("text/csv")
+                        .content("title,price\nDog Toy,1\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importProducts_shouldReturnForbidden_whenPasswordIsWrong() throws Exception {
+        mockMvc.perform(post("/api/admin/products/import")
+                        .param("password", "wrong-password")
+                        .contentType("text/csv")
+                        .content("name,size,pet,color,price,img\n"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void bulkUpdate_shouldChangeOnlyMatchingProducts() throws Exception {
+        Product dogToy = productRepository.save(product("Dog Toy").price(new BigDecimal("10.00")).build());
+        Product dogBed = productRepository.save(product("Dog Bed").price(new BigDecimal("45.50")).build());
+        Product catBowl = productRepository.save(product("Cat Bowl").pet(PetType.CAT).build());
+
+        mockMvc.perform(patch("/api/admin/products")
+                        .param("password", adminSecret)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filter":{"pet":["DOG"]},"priceMultiplier":1.10}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+
+        assertEquals(new BigDecimal("11.00"), productRepository.findById(dogToy.getId()).orElseThrow().getPrice());
+        assertEquals(new BigDecimal("50.05"), productRepository.findById(dogBed.getId()).orElseThrow().getPrice());
+        assertEquals(new BigDecimal("9.99"), productRepository.findById(catBowl.getId()).orElseThrow().getPrice());
+    }
+
+    @Test
+    void bulkUpdate_shouldReturnBadRequest_whenNoChange() throws Exception {
+        mockMvc.perform(patch("/api/admin/products")
+                        .param("password", adminSecret)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{}}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bulkUpdate_shouldReturnForbidden_whenPasswordIsWrong() throws Exception {
+        mockMvc.perform(patch("/api/admin/products")
+                        .param("password", "wrong-password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{},\"color\":\"Red\"}"))
+                .andExpect(status().isForbidden());
+    }
+}
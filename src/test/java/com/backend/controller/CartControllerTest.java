@@ -1,7 +1,10 @@
 package com.backend.controller;
 
 import com.backend.AbstractIntegrationTest;
+import com.backend.dto.CartBatchRequestDTO;
 import com.backend.dto.CartDTO;
+import com.backend.dto.CartOperationDTO;
+import com.backend.model.CartOperationType;
 import com.backend.model.Cart;
 import com.backend.model.PetType;
 import com.backend.model.Product;
@@ -76,6 +79,7 @@ class CartControllerIntegrationTest extends AbstractIntegrationTest {
         catCollar = Product.builder()
                 .name("Collar")
                 .size(SizeType.M)
+                .sizeMask(SizeType.L.bit())
                 .pet(PetType.CAT)
                 .price(BigDecimal.valueOf(15.99))
                 .color("Yellow")
@@ -475,6 +479,149 @@ class CartControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    // ==================== BATCH TESTS ====================
+
+    @Test
+    @WithMockUser(username = "test@mail.com")
+    void applyBatch_shouldApplyAllOperationsAndReturnCartWithTotal() throws Exception {
+        // GIVEN
+        Cart collarLine = cartRepository.save(Cart.builder()
+                .userId(testUser.getId())
+                .productId(catCollar.getId())
+                .quantity(2)
+                .selectedSize("M")
+                .build());
+        Cart bowLine = cartRepository.save(Cart.builder()
+                .userId(testUser.getId())
+                .productId(dogBow.getId())
+                .quantity(1)
+                .selectedSize("S")
+                .build());
+
+        CartBatchRequestDTO batch = batch(
+                CartOperationDTO.builder().type(CartOperationType.ADD)
+                        .productId(catSunglasses.getId()).quantity(3).selectedSize("xs").build(),
+                CartOperationDTO.builder().type(CartOperationType.UPDATE)
+                        .cartId(collarLine.getId()).quantity(5).build(),
+                CartOperationDTO.builder().type(CartOperationType.REMOVE)
+                        .cartId(bowLine.getId()).build()
+        );
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/cart/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].productName").value("Collar"))
+                .andExpect(jsonPath("$.items[0].quantity").value(5))
+                .andExpect(jsonPath("$.items[1].productName").value("Sunglasses"))
+                .andExpect(jsonPath("$.items[1].selectedSize").value("XS"))
+                .andExpect(jsonPath("$.total").value(118.92));
+
+        assertEquals(2, cartRepository.findByUserId(testUser.getId()).size());
+    }
+
+    @Test
+    @WithMockUser(username = "test@mail.com")
+    void applyBatch_shouldReuseLine_whenRemovedAndAddedAgain() throws Exception {
+        // GIVEN
+        Cart collarLine = cartRepository.save(Cart.builder()
+                .userId(testUser.getId())
+                .productId(catCollar.getId())
+                .quantity(2)
+                .selectedSize("M")
+                .build());
+
+        CartBatchRequestDTO batch = batch(
+                CartOperationDTO.builder().type(CartOperationType.REMOVE).cartId(collarLine.getId()).build(),
+                CartOperationDTO.builder().type(CartOperationType.ADD)
+                        .productId(catCollar.getId()).quantity(4).selectedSize("M").build()
+        );
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/cart/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(collarLine.getId()))
+                .andExpect(jsonPath("$.items[0].quantity").value(4));
+    }
+
+    @Test
+    @WithMockUser(username = "test@mail.com")
+    void applyBatch_shouldApplyNothing_whenOneOperationFails() throws Exception {
+        // GIVEN
+        CartBatchRequestDTO batch = batch(
+                CartOperationDTO.builder().type(CartOperationType.ADD)
+                        .productId(dogBow.getId()).quantity(1).selectedSize("S").build(),
+                CartOperationDTO.builder().type(CartOperationType.UPDATE).cartId(99999L).quantity(2).build()
+        );
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/cart/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isNotFound());
+
+        assertTrue(cartRepository.findByUserId(testUser.getId()).isEmpty());
+    }
+
+    @Test
+    @WithMockUser(username = "test@mail.com")
+    void applyBatch_shouldReturnForbidden_whenCartItemBelongsToAnotherUser() throws Exception {
+        // GIVEN
+        User anotherUser = userRepository.save(User.builder()
+                .email("another@mail.com")
+                .password(passwordEncoder.encode("password"))
+                .firstName("Jane")
+                .lastName("Smith")
+                .build());
+        Cart anotherUserCart = cartRepository.save(Cart.builder()
+                .userId(anotherUser.getId())
+                .productId(catCollar.getId())
+                .quantity(1)
+                .selectedSize("M")
+                .build());
+
+        CartBatchRequestDTO batch = batch(
+                CartOperationDTO.builder().type(CartOperationType.REMOVE).cartId(anotherUserCart.getId()).build()
+        );
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/cart/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isForbidden());
+
+        assertTrue(cartRepository.findById(anotherUserCart.getId()).isPresent());
+    }
+
+    @Test
+    @WithMockUser(username = "test@mail.com")
+    void applyBatch_shouldReturnBadRequest_whenOperationIncomplete() throws Exception {
+        // GIVEN: ADD without a product
+        CartBatchRequestDTO batch = batch(
+                CartOperationDTO.builder().type(CartOperationType.ADD).quantity(1).build()
+        );
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/cart/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void applyBatch_shouldReturnUnauthorized_whenUserNotAuthenticated() throws Exception {
+        // WHEN & THEN
+        mockMvc.perform(post("/api/cart/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[]}"))
+                .andExpect(status().isUnauthorized());
+    }
+
     // ==================== EDGE CASES ====================
 
     @Test
@@ -504,6 +651,25 @@ class CartControllerIntegrationTest extends AbstractIntegrationTest {
         assertEquals(2, cartItems.size());
     }
 
+    @Test
+    @WithMockUser(username = "test@mail.com")
+    void addToCart_shouldReturnBadRequest_whenProductNotOfferedInSize() throws Exception {
+        // GIVEN
+        CartDTO dto = CartDTO.builder()
+                .productId(dogBow.getId())
+                .quantity(1)
+                .selectedSize("XL")
+                .build();
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/cart/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+        assertTrue(cartRepository.findByUserId(testUser.getId()).isEmpty());
+    }
+
     @Test
     @WithMockUser(username = "test@mail.com")
     void addToCart_shouldWorkWithPetProducts_whenAddingMultipleProductsForDifferentPets() throws Exception {
@@ -532,4 +698,10 @@ class CartControllerIntegrationTest extends AbstractIntegrationTest {
         List<Cart> cartItems = cartRepository.findByUserId(testUser.getId());
         assertEquals(2, cartItems.size());
     }
+
+    private static CartBatchRequestDTO batch(CartOperationDTO... operations) {
+        return CartBatchRequestDTO.builder()
+                .operations(List.of(operations))
+                .build();
+    }
 }
@@ -0,0 +1,92 @@
+package com.backend.controller;
+
+import com.backend.AbstractCatalogIndexIntegrationTest;
+import com.backend.event.ProductChangedEvent;
+import com.backend.repository.ProductRepository;
+import com.backend.service.CatalogHealth;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+
+import static com.backend.ProductFixtures.product;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Catalog reads across a database outage.
+ */
+class CatalogDegradedModeIntegrationTest extends AbstractCatalogIndexIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogHealth catalogHealth;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        // Retired products are invisible to the repository
+        jdbcTemplate.update("DELETE FROM products");
+        productRepository.save(product("Dog Toy").price(new BigDecimal("10.00")).build());
+        // Saved past ProductService, so the catalog is told to reload
+        eventPublisher.publishEvent(ProductChangedEvent.bulk());
+        ReflectionTestUtils.setField(catalogHealth, "refreshExecutor", (Executor) Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(catalogHealth, "degradedSince", null);
+        jdbcTemplate.update("DELETE FROM products");
+        eventPublisher.publishEvent(ProductChangedEvent.bulk());
+    }
+
+    @Test
+    void filterProducts_shouldChangeBodyAndETag_whenProductChangedDuringOutage() throws Exception {
+        // GIVEN: a cached listing
+        String eTag = mockMvc.perform(get("/api/products/filter").param("pet", "DOG"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].price").value(10.0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/products/filter").param("pet", "DOG").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // WHEN: another writer changes the product while the catalog is degraded, then the database recovers
+        ReflectionTestUtils.setField(catalogHealth, "degradedSince", Instant.now());
+        jdbcTemplate.update("UPDATE products SET price = 12.00 WHERE name = 'Dog Toy'");
+        // The other writer does not go through this node's second-level cache either
+        entityManagerFactory.getCache().evictAll();
+        catalogHealth.probe();
+
+        // THEN
+        assertFalse(catalogHealth.isDegraded());
+        mockMvc.perform(get("/api/products/filter").param("pet", "DOG").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$[0].price").value(12.0));
+    }
+}
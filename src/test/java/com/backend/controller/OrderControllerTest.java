@@ -2,6 +2,7 @@ package com.backend.controller;
 
 import com.backend.dto.OrderRequestDTO;
 import com.backend.dto.OrderResponseDTO;
+import com.backend.event.OrderPlacedEvent;
 import com.backend.exception.EmptyCartException;
 import com.backend.exception.ResourceNotFoundException;
 import com.backend.exception.UnauthorizedException;
@@ -14,14 +15,17 @@ import com.backend.repository.ProductRepository;
 import com.backend.service.OrderService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,6 +52,9 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -145,6 +152,11 @@ class OrderServiceTest {
         then(orderRepository).should().save(any(Order.class));
         then(cartRepository).should().deleteByUserId(userId);
         then(orderMapper).should().toResponseDTO(savedOrder);
+
+        ArgumentCaptor<OrderPlacedEvent> event = ArgumentCaptor.forClass(OrderPlacedEvent.class);
+        then(eventPublisher).should().publishEvent(event.capture());
+        assertEquals(1L, event.getValue().getOrderId());
+        assertEquals(Map.of(100L, 2, 200L, 1), event.getValue().getQuantities());
     }
 
     @Test
@@ -169,6 +181,7 @@ class OrderServiceTest {
         then(productRepository).should(never()).findAllById(any());
         then(orderRepository).should(never()).save(any());
         then(cartRepository).should(never()).deleteByUserId(any());
+        then(eventPublisher).shouldHaveNoInteractions();
     }
 
     @Test
@@ -1,19 +1,24 @@
 package com.backend.controller;
 
 import com.backend.AbstractIntegrationTest;
+import com.backend.model.Cart;
 import com.backend.model.PetType;
 import com.backend.model.Product;
 import com.backend.model.SizeType;
+import com.backend.repository.CartRepository;
 import com.backend.repository.ProductRepository;
+import com.backend.service.ProductRetirementService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -35,12 +40,22 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRetirementService retirementService;
+
     private Product dogProduct;
     private Product catProduct;
 
     @BeforeEach
     void setUp() {
-        productRepository.deleteAll();
+        // Retired products are invisible to the repository
+        jdbcTemplate.update("DELETE FROM products");
 
         dogProduct = Product.builder()
                 .name("Dog Toy")
@@ -92,6 +107,21 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$[0].name").value("Cat Bowl"));
     }
 
+    @Test
+    void filterProducts_shouldMatchAnyOfferedSize() throws Exception {
+        productRepository.save(Product.builder()
+                .name("Dog Harness").size(SizeType.S).sizeMask(SizeType.maskOf(List.of(SizeType.L, SizeType.XL)))
+                .pet(PetType.DOG).color("Black").price(BigDecimal.valueOf(24.99)).build());
+
+        mockMvc.perform(get("/api/products/filter")
+                        .param("size", "XL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Dog Harness"))
+                .andExpect(jsonPath("$[0].size").value("S"))
+                .andExpect(jsonPath("$[0].sizes", hasSize(3)));
+    }
+
     @Test
     void filterProducts_shouldFilterBySearch() throws Exception {
         mockMvc.perform(get("/api/products/filter")
@@ -101,6 +131,136 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$[0].name").value("Dog Toy"));
     }
 
+    @Test
+    void filterProducts_shouldSortByPriceDescending() throws Exception {
+        mockMvc.perform(get("/api/products/filter")
+                        .param("sort", "PRICE")
+                        .param("direction", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Dog Toy"))
+                .andExpect(jsonPath("$[1].name").value("Cat Bowl"));
+    }
+
+    @Test
+    void filterProducts_shouldSortByPopularityDescending() throws Exception {
+        jdbcTemplate.update("UPDATE products SET popularity = ? WHERE id = ?", 5.0, catProduct.getId());
+        jdbcTemplate.update("UPDATE products SET popularity = ? WHERE id = ?", 1.5, dogProduct.getId());
+
+        mockMvc.perform(get("/api/products/filter")
+                        .param("sort", "POPULARITY")
+                        .param("direction", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Cat Bowl"))
+                .andExpect(jsonPath("$[1].name").value("Dog Toy"));
+    }
+
+    @Test
+    void suggest_shouldCompleteNamePrefixCaseInsensitively() throws Exception {
+        mockMvc.perform(get("/api/products/suggest")
+                        .param("q", "dO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Dog Toy"))
+                .andExpect(jsonPath("$[0].id").value(dogProduct.getId()));
+    }
+
+    @Test
+    void suggest_shouldReturnBadRequest_whenLimitTooLarge() throws Exception {
+        mockMvc.perform(get("/api/products/suggest")
+                        .param("q", "dog")
+                        .param("limit", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void filterProducts_shouldFilterByPriceRange() throws Exception {
+        mockMvc.perform(get("/api/products/filter")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "19.99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Dog Toy"));
+    }
+
+    @Test
+    void filterProducts_shouldReturnBadRequest_whenMinPriceGreaterThanMaxPrice() throws Exception {
+        mockMvc.perform(get("/api/products/filter")
+                        .param("minPrice", "20")
+                        .param("maxPrice", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void filterProducts_shouldReturn304_whenETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/api/products/filter")
+                        .param("pet", "DOG"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products/filter")
+                        .param("pet", "DOG")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/products/filter")
+                        .param("pet", "CAT")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    // FACETS
+
+    @Test
+    void getFacets_shouldCountOtherAttributesWithoutOwnSelection() throws Exception {
+        mockMvc.perform(get("/api/products/facets")
+                        .param("pet", "DOG"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.pet.DOG").value(1))
+                .andExpect(jsonPath("$.pet.CAT").value(1))
+                .andExpect(jsonPath("$.pet.RODENTS").value(0))
+                .andExpect(jsonPath("$.size.M").value(1))
+                .andExpect(jsonPath("$.size.S").value(0))
+                .andExpect(jsonPath("$.color.Red").value(1))
+                .andExpect(jsonPath("$.color.Blue").doesNotExist());
+    }
+
+    // FILTER PAGE
+
+    @Test
+    void filterProductPage_shouldWalkPagesWithCursor() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/products/filter/page")
+                        .param("sort", "PRICE")
+                        .param("limit", "1")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name").value("Cat Bowl"))
+                .andExpect(jsonPath("$.totalCount").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/products/filter/page")
+                        .param("sort", "PRICE")
+                        .param("limit", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name").value("Dog Toy"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void filterProductPage_shouldReturn400_whenCursorInvalid() throws Exception {
+        mockMvc.perform(get("/api/products/filter/page")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     // GET BY ID
 
     @Test
@@ -112,6 +272,27 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.size").value("M"));
     }
 
+    @Test
+    void getProductById_shouldVaryByAcceptEncoding() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", dogProduct.getId())
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(jsonPath("$.name").value("Dog Toy"));
+    }
+
+    @Test
+    void getProductById_shouldReturn304_whenETagMatches() throws Exception {
+        String eTag = mockMvc.perform(get("/api/products/{id}", dogProduct.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products/{id}", dogProduct.getId())
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void getProductById_shouldReturn404_whenNotFound() throws Exception {
         mockMvc.perform(get("/api/products/{id}", 999L))
@@ -120,6 +301,49 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
                         .value("Product with id 999 not found"));
     }
 
+    // GET BY IDS
+
+    @Test
+    void getProductsByIds_shouldReturnProductsInRequestOrderAndMissingIds() throws Exception {
+        mockMvc.perform(get("/api/products/batch")
+                        .param("ids", catProduct.getId() + "," + 999 + "," + dogProduct.getId() + "," + catProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(2)))
+                .andExpect(jsonPath("$.products[0].name").value("Cat Bowl"))
+                .andExpect(jsonPath("$.products[1].name").value("Dog Toy"))
+                .andExpect(jsonPath("$.missingIds", contains(999)));
+    }
+
+    @Test
+    void getProductsByIds_shouldReturn400_whenNoIds() throws Exception {
+        mockMvc.perform(get("/api/products/batch"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // SIMILAR
+
+    @Test
+    void getSimilarProducts_shouldRankSamePetProducts() throws Exception {
+        productRepository.save(Product.builder()
+                .name("Dog Ball").size(SizeType.L).pet(PetType.DOG).color("Green")
+                .price(BigDecimal.valueOf(49.99)).build());
+        productRepository.save(Product.builder()
+                .name("Dog Rope").size(SizeType.M).pet(PetType.DOG).color("Red")
+                .price(BigDecimal.valueOf(21.99)).build());
+
+        mockMvc.perform(get("/api/products/{id}/similar", dogProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Dog Rope"))
+                .andExpect(jsonPath("$[1].name").value("Dog Ball"));
+    }
+
+    @Test
+    void getSimilarProducts_shouldReturn404_whenProductNotFound() throws Exception {
+        mockMvc.perform(get("/api/products/{id}/similar", 999))
+                .andExpect(status().isNotFound());
+    }
+
     // CREATE
     @Test
     void createProduct_shouldCreateProductSuccessfully() throws Exception {
@@ -144,6 +368,32 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
         assertEquals(3, productRepository.count());
     }
 
+    // CHANGES
+
+    @Test
+    void getChanges_shouldReturnRecordedUpsertWithCurrentProduct() throws Exception {
+        String created = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Dog Cage", "size": "L", "pet": "DOG", "color": "White", "price": 49.99, "img": "cage.png"}
+                                """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(get("/api/products/changes").param("since", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[?(@.productId == " + id + ")].type", contains("UPSERT")))
+                .andExpect(jsonPath("$.changes[?(@.productId == " + id + ")].product.name", contains("Dog Cage")))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getChanges_shouldReturn400_whenSinceNegative() throws Exception {
+        mockMvc.perform(get("/api/products/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
     // UPDATE
 
     @Test
@@ -168,6 +418,29 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.price").value(29.99));
     }
 
+    @Test
+    void updateProduct_shouldKeepOfferedSizes_whenSizesOmitted() throws Exception {
+        Product harness = productRepository.save(Product.builder()
+                .name("Dog Harness").size(SizeType.S).sizeMask(SizeType.maskOf(List.of(SizeType.L, SizeType.XL)))
+                .pet(PetType.DOG).color("Black").price(BigDecimal.valueOf(24.99)).build());
+        String updateBody = """
+                {
+                  "name": "Dog Harness",
+                  "size": "S",
+                  "pet": "DOG",
+                  "color": "Black",
+                  "price": 19.99
+                }
+                """;
+
+        mockMvc.perform(put("/api/products/{id}", harness.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(19.99))
+                .andExpect(jsonPath("$.sizes", contains("S", "L", "XL")));
+    }
+
     @Test
     void updateProduct_shouldReturn404_whenProductNotFound() throws Exception {
         mockMvc.perform(put("/api/products/{id}", 999L)
@@ -188,6 +461,28 @@ class ProductControllerIntegrationTest extends AbstractIntegrationTest {
         assertEquals(1, productRepository.count());
     }
 
+    @Test
+    void deleteProduct_shouldHideProductAtOnceAndPurgeItWithCartRowsLater() throws Exception {
+        cartRepository.save(Cart.builder().userId(1L).productId(dogProduct.getId()).quantity(2).build());
+
+        mockMvc.perform(delete("/api/products/{id}", dogProduct.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/{id}", dogProduct.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/products/filter"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Cat Bowl"));
+        mockMvc.perform(delete("/api/products/{id}", dogProduct.getId()))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, retirementService.purgeRetiredProducts());
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM cart WHERE product_id = ?", Long.class, dogProduct.getId()));
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM products WHERE id = ?", Long.class, dogProduct.getId()));
+    }
+
     @Test
     void deleteProduct_shouldReturn404_whenNotFound() throws Exception {
         mockMvc.perform(delete("/api/products/{id}", 999L))
@@ -0,0 +1,130 @@
+package com.backend.controller;
+
+import com.backend.AbstractIntegrationTest;
+import com.backend.model.Comment;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.repository.CommentRepository;
+import com.backend.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.backend.ProductFixtures.product;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Streaming responses are written on an async thread with its own transaction, so unlike the other
+ * controller tests this class is not @Transactional: data is committed and removed after each test.
+ */
+class StreamingEndpointsIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        productRepository.saveAll(List.of(
+                product("Dog Toy").price(new BigDecimal("19.99")).build(),
+                product("Dog Bed").price(new BigDecimal("49.99")).build(),
+                product("Cat Bowl").pet(PetType.CAT).build()
+        ));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        commentRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void streamFilteredProducts_shouldWriteSameJsonAsFilter() throws Exception {
+        String expected = mockMvc.perform(get("/api/products/filter")
+                        .param("pet", "DOG")
+                        .param("sort", "PRICE")
+                        .param("direction", "DESC"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult result = mockMvc.perform(get("/api/products/filter/stream")
+                        .param("pet", "DOG")
+                        .param("sort", "PRICE")
+                        .param("direction", "DESC"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Dog Bed"))
+                .andExpect(content().json(expected, true));
+    }
+
+    @Test
+    void streamFilteredProducts_shouldWriteEmptyArray_whenNothingMatches() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/products/filter/stream")
+                        .param("search", "no such product"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void streamFilteredProducts_shouldReturnBadRequest_whenPriceRangeInvalid() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/products/filter/stream")
+                        .param("minPrice", "20")
+                        .param("maxPrice", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamAllComments_shouldWriteAllCommentsOrderedById() throws Exception {
+        Comment first = commentRepository.save(comment("First!"));
+        commentRepository.save(comment("Second"));
+
+        MvcResult result = mockMvc.perform(get("/api/comments/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(first.getId()))
+                .andExpect(jsonPath("$[0].commentText").value("First!"))
+                .andExpect(jsonPath("$[1].commentText").value("Second"));
+    }
+
+    private static Comment comment(String text) {
+        return Comment.builder()
+                .productId(1L)
+                .userId(1L)
+                .commentText(text)
+                .createdDate(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.backend.repository;
+
+import com.backend.AbstractIntegrationTest;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.mapper.ProductMapper;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+import com.backend.specification.ProductSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the entity read path (load managed Products, map with ProductMapper) with the
+ * DTO projection path (constructor expression) on the same Specification and sort.
+ *
+ * Measures average latency and bytes allocated by the calling thread per query.
+ * Not part of the regular build, run with:
+ * CATALOG_BENCHMARK=true ./gradlew test --tests ProductReadPathBenchmarkTest -i
+ */
+@EnabledIfEnvironmentVariable(named = "CATALOG_BENCHMARK", matches = "true")
+class ProductReadPathBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 100;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private record Measurement(double millisPerQuery, long bytesPerQuery) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        jdbcTemplate.update("DELETE FROM products");
+        SizeType[] sizes = SizeType.values();
+        PetType[] pets = PetType.values();
+        jdbcTemplate.batchUpdate(
+                """
+                        WITH inserted AS (
+                            INSERT INTO products (name, size, pet, color, price, img) VALUES (?, ?, ?, ?, ?, ?) RETURNING id
+                        )
+                        INSERT INTO product_variants (product_id, size_mask) SELECT id, ? FROM inserted""",
+                IntStream.range(0, PRODUCTS).boxed().toList(),
+                1000,
+                (ps, i) -> {
+                    ps.setString(1, "Product " + i);
+                    ps.setString(2, sizes[i % sizes.length].name());
+                    ps.setString(3, pets[i % pets.length].name());
+                    ps.setString(4, i % 2 == 0 ? "Red" : "Blue");
+                    ps.setBigDecimal(5, BigDecimal.valueOf(100 + i % 5000, 2));
+                    ps.setString(6, "product-" + i + ".png");
+                    ps.setInt(7, sizes[i % sizes.length].bit());
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    void projectionPath_shouldAllocateLessThanEntityPath() {
+        Specification<Product> spec = ProductSpecification.matching(
+                ProductFilterDTO.builder().pet(List.of(PetType.DOG)).build()
+        );
+        Sort sort = Sort.by("price").and(Sort.by("id"));
+
+        Supplier<List<ProductResponseDTO>> entityPath = () -> readOnlyTransaction.execute(status ->
+                productMapper.toFilterDtoList(productRepository.findAll(spec, sort)));
+        Supplier<List<ProductResponseDTO>> projectionPath = () -> readOnlyTransaction.execute(status ->
+                productRepository.findDtos(spec, sort));
+
+        assertEquals(ids(entityPath.get()), ids(projectionPath.get()));
+
+        Measurement entity = measure(entityPath);
+        Measurement projection = measure(projectionPath);
+
+        System.out.printf("Entity path:     %.2f ms/query, %,d bytes/query%n", entity.millisPerQuery(), entity.bytesPerQuery());
+        System.out.printf("Projection path: %.2f ms/query, %,d bytes/query%n", projection.millisPerQuery(), projection.bytesPerQuery());
+
+        // Latency depends on the machine, allocation is stable enough to assert on
+        assertTrue(projection.bytesPerQuery() < entity.bytesPerQuery());
+    }
+
+    private static Measurement measure(Supplier<List<ProductResponseDTO>> query) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            query.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            query.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Measurement(elapsed / 1_000_000.0 / MEASURED_ROUNDS, allocated / MEASURED_ROUNDS);
+    }
+
+    private static List<Long> ids(List<ProductResponseDTO> products) {
+        return products.stream().map(ProductResponseDTO::getId).toList();
+    }
+}
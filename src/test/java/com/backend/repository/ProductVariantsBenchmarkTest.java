@@ -0,0 +1,142 @@
+package com.backend.repository;
+
+import com.backend.AbstractIntegrationTest;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.model.PetType;
+import com.backend.model.SizeType;
+import com.backend.specification.ProductSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the old catalog layout, one products row per (product, size), with product variants,
+ * one products row per product and its sizes in product_variants.size_mask.
+ *
+ * Both layouts hold the same products, each offered in three sizes, and are queried through the
+ * same size Specification. Measures the bytes of all catalog rows and the average latency of a
+ * size filter. Not part of the regular build, run with:
+ * CATALOG_BENCHMARK=true ./gradlew test --tests ProductVariantsBenchmarkTest -i
+ */
+@EnabledIfEnvironmentVariable(named = "CATALOG_BENCHMARK", matches = "true")
+class ProductVariantsBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int SIZES_PER_PRODUCT = 3;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 100;
+
+    private static final String INSERT_PRODUCT = """
+            WITH inserted AS (
+                INSERT INTO products (name, size, pet, color, price, img) VALUES (?, ?, ?, ?, ?, ?) RETURNING id
+            )
+            INSERT INTO product_variants (product_id, size_mask) SELECT id, ? FROM inserted""";
+
+    private static final String CATALOG_BYTES = """
+            SELECT (SELECT COALESCE(SUM(pg_column_size(p.*)), 0) FROM products p)
+                 + (SELECT COALESCE(SUM(pg_column_size(v.*)), 0) FROM product_variants v)""";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record Row(String name, SizeType size, int sizeMask, PetType pet, int index) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    void variants_shouldTakeLessSpaceThanRowPerSize() {
+        Supplier<List<ProductResponseDTO>> xsFilter = () -> productRepository.findDtos(
+                ProductSpecification.hasSizes(List.of(SizeType.XS)), Sort.by("id"));
+
+        insert(rowPerSize());
+        long rowPerSizeBytes = jdbcTemplate.queryForObject(CATALOG_BYTES, Long.class);
+        int rowPerSizeMatches = xsFilter.get().size();
+        double rowPerSizeMillis = measure(xsFilter);
+
+        jdbcTemplate.update("DELETE FROM products");
+        insert(variants());
+        long variantBytes = jdbcTemplate.queryForObject(CATALOG_BYTES, Long.class);
+        int variantMatches = xsFilter.get().size();
+        double variantMillis = measure(xsFilter);
+
+        System.out.printf("Row per size: %,d rows, %,d bytes, %.2f ms/size filter%n",
+                PRODUCTS * SIZES_PER_PRODUCT, rowPerSizeBytes, rowPerSizeMillis);
+        System.out.printf("Variants:     %,d rows, %,d bytes, %.2f ms/size filter%n",
+                PRODUCTS, variantBytes, variantMillis);
+
+        // Latency depends on the machine, the footprint does not
+        assertEquals(rowPerSizeMatches, variantMatches);
+        assertTrue(variantBytes < rowPerSizeBytes);
+    }
+
+    // Product i is offered in SIZES_PER_PRODUCT consecutive sizes starting at i % 3
+    private static List<SizeType> sizesOf(int product) {
+        SizeType[] all = SizeType.values();
+        return List.of(all).subList(product % 3, product % 3 + SIZES_PER_PRODUCT);
+    }
+
+    private static List<Row> rowPerSize() {
+        List<Row> rows = new ArrayList<>(PRODUCTS * SIZES_PER_PRODUCT);
+        for (int i = 0; i < PRODUCTS; i++) {
+            for (SizeType size : sizesOf(i)) {
+                rows.add(new Row("Product " + i + " " + size, size, size.bit(), pet(i), i));
+            }
+        }
+        return rows;
+    }
+
+    private static List<Row> variants() {
+        List<Row> rows = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            List<SizeType> sizes = sizesOf(i);
+            rows.add(new Row("Product " + i, sizes.get(0), SizeType.maskOf(sizes), pet(i), i));
+        }
+        return rows;
+    }
+
+    private static PetType pet(int product) {
+        PetType[] pets = PetType.values();
+        return pets[product % pets.length];
+    }
+
+    private void insert(List<Row> rows) {
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows, 1000, (ps, row) -> {
+            ps.setString(1, row.name());
+            ps.setString(2, row.size().name());
+            ps.setString(3, row.pet().name());
+            ps.setString(4, row.index() % 2 == 0 ? "Red" : "Blue");
+            ps.setBigDecimal(5, BigDecimal.valueOf(100 + row.index() % 5000, 2));
+            ps.setString(6, "product-" + row.index() + ".png");
+            ps.setInt(7, row.sizeMask());
+        });
+    }
+
+    private static double measure(Supplier<List<ProductResponseDTO>> query) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+}
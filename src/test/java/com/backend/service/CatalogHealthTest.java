@@ -0,0 +1,137 @@
+package com.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogHealthTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductCatalogIndex catalogIndex;
+
+    @InjectMocks
+    private CatalogHealth catalogHealth;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogHealth, "latencyBudget", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(catalogHealth, "refreshExecutor", (Executor) Runnable::run);
+    }
+
+    @Test
+    void timed_shouldReturnResultAndStayHealthy_whenReadWithinBudget() {
+        assertEquals("products", catalogHealth.timed(() -> "products"));
+
+        assertFalse(catalogHealth.isDegraded());
+        assertEquals(0, catalogHealth.staleSeconds());
+    }
+
+    @Test
+    void timed_shouldDegradeAndRethrow_whenConnectionUnavailable() {
+        // WHEN
+        assertThrows(CannotCreateTransactionException.class, () -> catalogHealth.timed(() -> {
+            throw new CannotCreateTransactionException("Connection is not available, request timed out");
+        }));
+
+        // THEN
+        assertTrue(catalogHealth.isDegraded());
+    }
+
+    @Test
+    void timed_shouldDegradeButReturnResult_whenReadOverBudget() {
+        // GIVEN
+        ReflectionTestUtils.setField(catalogHealth, "latencyBudget", Duration.ofMillis(1));
+
+        // WHEN
+        String result = catalogHealth.timed(() -> {
+            sleep(20);
+            return "products";
+        });
+
+        // THEN
+        assertEquals("products", result);
+        assertTrue(catalogHealth.isDegraded());
+    }
+
+    @Test
+    void servesSnapshot_shouldBeFalse_whenIndexNotReady() {
+        // GIVEN
+        degrade();
+        given(catalogIndex.isReady()).willReturn(false);
+
+        // WHEN & THEN
+        assertTrue(catalogHealth.isDegraded());
+        assertFalse(catalogHealth.servesSnapshot());
+    }
+
+    @Test
+    void probe_shouldRecoverAndRefreshSnapshot_whenDatabaseAnswersWithinBudget() {
+        // GIVEN
+        degrade();
+        given(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).willReturn(1);
+        given(catalogIndex.isReady()).willReturn(true);
+
+        // WHEN
+        catalogHealth.probe();
+
+        // THEN
+        assertFalse(catalogHealth.isDegraded());
+        then(catalogIndex).should().reconcile();
+    }
+
+    @Test
+    void probe_shouldStayDegraded_whenDatabaseStillUnavailable() {
+        // GIVEN
+        degrade();
+        given(jdbcTemplate.queryForObject("SELECT 1", Integer.class))
+                .willThrow(new CannotGetJdbcConnectionException("Connection refused"));
+
+        // WHEN
+        catalogHealth.probe();
+
+        // THEN
+        assertTrue(catalogHealth.isDegraded());
+        then(catalogIndex).should(never()).reconcile();
+    }
+
+    @Test
+    void probe_shouldNotQueryDatabase_whenHealthy() {
+        catalogHealth.probe();
+
+        then(jdbcTemplate).shouldHaveNoInteractions();
+    }
+
+    private void degrade() {
+        assertThrows(QueryTimeoutException.class, () -> catalogHealth.timed(() -> {
+            throw new QueryTimeoutException("canceling statement due to statement timeout");
+        }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogResponseCacheTest {
+
+    private CatalogResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache();
+        ReflectionTestUtils.setField(cache, "maxBytes", DataSize.ofKilobytes(8));
+    }
+
+    @Test
+    void put_shouldStoreGzipVariant_whenBodyLargeEnough() throws IOException {
+        // GIVEN
+        byte[] json = ("[" + "{\"name\":\"Dog Toy\"},".repeat(100) + "{}]").getBytes(StandardCharsets.UTF_8);
+
+        // WHEN
+        cache.put("filter:dogs", 1L, json);
+        CatalogResponseCache.CachedResponse cached = cache.get("filter:dogs", 1L);
+
+        // THEN
+        assertNotNull(cached);
+        assertArrayEquals(json, cached.json());
+        assertNotNull(cached.gzip());
+        assertTrue(cached.gzip().length < json.length);
+        try (GZIPInputStream unzipped = new GZIPInputStream(new ByteArrayInputStream(cached.gzip()))) {
+            assertArrayEquals(json, unzipped.readAllBytes());
+        }
+    }
+
+    @Test
+    void put_shouldSkipGzip_whenBodySmall() {
+        CatalogResponseCache.CachedResponse response = cache.put("product:1", 1L, "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(response.gzip());
+    }
+
+    @Test
+    void get_shouldMiss_whenRenderedAtOlderCatalogVersion() {
+        // GIVEN
+        cache.put("product:1", 1L, "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        // WHEN
+        CatalogResponseCache.CachedResponse cached = cache.get("product:1", 2L);
+
+        // THEN
+        assertNull(cached);
+        assertEquals(0, cache.storedBytes());
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsed_whenOverByteBudget() {
+        // GIVEN: about 3 KB each with the gzip copy, 8 KB in total
+        cache.put("a", 1L, incompressible(1500));
+        cache.put("b", 1L, incompressible(1500));
+        cache.get("a", 1L);
+
+        // WHEN
+        cache.put("c", 1L, incompressible(1000));
+        cache.put("d", 1L, incompressible(1000));
+
+        // THEN
+        assertNotNull(cache.get("a", 1L));
+        assertNull(cache.get("b", 1L));
+        assertTrue(cache.storedBytes() <= DataSize.ofKilobytes(8).toBytes());
+    }
+
+    @Test
+    void get_shouldAlwaysMiss_whenDisabled() {
+        // GIVEN
+        ReflectionTestUtils.setField(cache, "maxBytes", DataSize.ofBytes(0));
+
+        // WHEN
+        cache.put("product:1", 1L, "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        // THEN
+        assertNull(cache.get("product:1", 1L));
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourQualityValues() {
+        assertTrue(CatalogResponseCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CatalogResponseCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(CatalogResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(CatalogResponseCache.acceptsGzip("deflate"));
+        assertFalse(CatalogResponseCache.acceptsGzip(null));
+    }
+
+    // Bytes gzip cannot shrink, so each entry costs its size twice (json and gzip)
+    private static byte[] incompressible(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
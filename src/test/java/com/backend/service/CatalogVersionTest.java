@@ -0,0 +1,63 @@
+package com.backend.service;
+
+import com.backend.dto.ProductFilterDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.PetType;
+import com.backend.model.ProductSort;
+import com.backend.model.SizeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Test
+    void onProductChanged_shouldIncreaseVersionAndChangeETags() {
+        // GIVEN
+        long before = catalogVersion.current();
+        String eTagBefore = catalogVersion.eTag("product:1");
+
+        // WHEN
+        catalogVersion.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        // THEN
+        assertEquals(before + 1, catalogVersion.current());
+        assertNotEquals(eTagBefore, catalogVersion.eTag("product:1"));
+    }
+
+    @Test
+    void eTag_shouldBeEqualForEquivalentFilters() {
+        ProductFilterDTO first = ProductFilterDTO.builder()
+                .size(List.of(SizeType.M, SizeType.S))
+                .pet(List.of(PetType.DOG))
+                .search(" Toy ")
+                .build();
+        ProductFilterDTO second = ProductFilterDTO.builder()
+                .size(List.of(SizeType.S, SizeType.M, SizeType.S))
+                .pet(List.of(PetType.DOG))
+                .color(List.of())
+                .search("toy")
+                .build();
+
+        ProductFilterKey firstKey = ProductFilterKey.of(first, ProductSort.PRICE, null);
+        ProductFilterKey secondKey = ProductFilterKey.of(second, ProductSort.PRICE, null);
+
+        assertEquals(firstKey, secondKey);
+        assertEquals(catalogVersion.eTag(firstKey.canonical()), catalogVersion.eTag(secondKey.canonical()));
+    }
+
+    @Test
+    void matches_shouldHandleListsWildcardAndWeakValidators() {
+        String eTag = "\"42-abc\"";
+
+        assertTrue(CatalogVersion.matches("\"1-xyz\", \"42-abc\"", eTag));
+        assertTrue(CatalogVersion.matches("W/\"42-abc\"", eTag));
+        assertTrue(CatalogVersion.matches("*", eTag));
+        assertFalse(CatalogVersion.matches("\"41-abc\"", eTag));
+        assertFalse(CatalogVersion.matches(null, eTag));
+    }
+}
@@ -0,0 +1,338 @@
+package com.backend.service;
+
+import com.backend.dto.ProductFacetsDTO;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+import com.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private ProductCatalogSnapshot catalogSnapshot;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ProductCatalogIndex catalogIndex;
+
+    private Product dogCollar;
+    private Product catCollar;
+    private Product dogBow;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogIndex, "enabled", true);
+
+        dogCollar = product("Dog Collar").id(1L).color("Yellow").build();
+        catCollar = product("Cat Collar").id(2L).size(SizeType.S).pet(PetType.CAT).build();
+        dogBow = product("Bow").id(3L).size(SizeType.L).build();
+
+        catalogIndex.rebuild(List.of(dogCollar, catCollar, dogBow));
+    }
+
+    @Test
+    void isReady_shouldBeFalse_whenIndexDisabled() {
+        ReflectionTestUtils.setField(catalogIndex, "enabled", false);
+
+        assertFalse(catalogIndex.isReady());
+    }
+
+    @Test
+    void load_shouldReadAllProductsFromRepository() {
+        // GIVEN
+        given(productRepository.findAll()).willReturn(List.of(dogCollar));
+
+        // WHEN
+        catalogIndex.load();
+
+        // THEN
+        assertTrue(catalogIndex.isReady());
+        assertEquals(1, catalogIndex.size());
+    }
+
+    @Test
+    void load_shouldServeSnapshotFirstAndReconcileInBackground() {
+        // GIVEN
+        List<Runnable> background = new ArrayList<>();
+        ReflectionTestUtils.setField(catalogIndex, "reconcileExecutor", (Executor) background::add);
+        given(catalogSnapshot.read()).willReturn(Optional.of(List.of(dogCollar, catCollar)));
+        given(catalogVersion.current()).willReturn(7L);
+        given(productRepository.findAll()).willReturn(List.of(dogBow));
+
+        // WHEN
+        catalogIndex.load();
+
+        // THEN: snapshot content is served before the database has been read
+        assertEquals(2, catalogIndex.size());
+        then(productRepository).should(never()).findAll();
+
+        // WHEN
+        background.forEach(Runnable::run);
+
+        // THEN: results derived from the snapshot content are invalidated
+        assertEquals(List.of(3L), ids(catalogIndex.findProducts(filter(null, null, null, null))));
+        then(catalogSnapshot).should().write(List.of(dogBow));
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        then(eventPublisher).should().publishEvent(event.capture());
+        assertEquals(ProductChangedEvent.ChangeType.BULK, event.getValue().getType());
+    }
+
+    @Test
+    void reconcile_shouldNotReloadAgain_whenItsOwnBulkChangeArrives() {
+        // GIVEN
+        given(catalogVersion.current()).willReturn(7L);
+        given(productRepository.findAll()).willReturn(List.of(dogBow));
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+
+        // WHEN
+        catalogIndex.reconcile();
+        then(eventPublisher).should().publishEvent(event.capture());
+        catalogIndex.onProductChanged(event.getValue());
+
+        // THEN
+        then(productRepository).should(times(1)).findAll();
+        assertEquals(1, catalogIndex.size());
+    }
+
+    @Test
+    void reconcile_shouldNotPublishChange_whenIndexNotServingYet() {
+        // GIVEN
+        ProductCatalogIndex coldIndex = new ProductCatalogIndex(productRepository, catalogVersion, catalogSnapshot, eventPublisher);
+        ReflectionTestUtils.setField(coldIndex, "enabled", true);
+        given(catalogVersion.current()).willReturn(7L);
+        given(productRepository.findAll()).willReturn(List.of(dogBow));
+
+        // WHEN
+        coldIndex.reconcile();
+
+        // THEN
+        assertTrue(coldIndex.isReady());
+        then(eventPublisher).should(never()).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void reconcile_shouldReadAgain_whenCatalogChangedDuringRead() {
+        // GIVEN: a product change is applied while the first read is running
+        given(catalogVersion.current()).willReturn(1L, 2L, 2L, 2L);
+        given(productRepository.findAll()).willReturn(List.of(dogCollar), List.of(dogCollar, dogBow));
+
+        // WHEN
+        catalogIndex.reconcile();
+
+        // THEN
+        then(productRepository).should(times(2)).findAll();
+        assertEquals(2, catalogIndex.size());
+        then(catalogSnapshot).should().write(List.of(dogCollar, dogBow));
+    }
+
+    @Test
+    void saveSnapshot_shouldWriteIndexContent_whenCatalogChangedSinceLastSnapshot() {
+        // GIVEN
+        given(catalogSnapshot.isEnabled()).willReturn(true);
+        given(catalogVersion.current()).willReturn(3L);
+
+        // WHEN
+        catalogIndex.saveSnapshot();
+
+        // THEN
+        then(catalogSnapshot).should().write(argThat(products -> ids(List.copyOf(products)).equals(List.of(1L, 2L, 3L))));
+    }
+
+    @Test
+    void findProducts_shouldReturnAllProducts_whenNoFiltersApplied() {
+        List<Product> result = catalogIndex.findProducts(filter(null, null, null, null));
+
+        assertEquals(List.of(1L, 2L, 3L), ids(result));
+    }
+
+    @Test
+    void findProducts_shouldOrValuesWithinAttributeAndAndAcrossAttributes() {
+        List<Product> result = catalogIndex.findProducts(
+                filter(List.of(SizeType.M, SizeType.L), List.of(PetType.DOG), List.of("Red"), null)
+        );
+
+        assertEquals(List.of(3L), ids(result));
+    }
+
+    @Test
+    void findProducts_shouldMatchSearchCaseInsensitively() {
+        List<Product> result = catalogIndex.findProducts(filter(null, null, null, "  COLLAR "));
+
+        assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    void findProducts_shouldReturnEmptyList_whenColorUnknown() {
+        List<Product> result = catalogIndex.findProducts(filter(null, null, List.of("Purple"), null));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findProducts_shouldFilterByInclusivePriceRangeCombinedWithAttributes() {
+        // GIVEN
+        catalogIndex.rebuild(List.of(
+                priced(dogCollar, "5.00"),
+                priced(catCollar, "12.50"),
+                priced(dogBow, "20.00"),
+                priced(product("Dog Bed").id(4L).size(SizeType.L).color("Grey").build(), "35.99")
+        ));
+
+        // WHEN
+        List<Product> range = catalogIndex.findProducts(priceFilter(null, "12.50", "20"));
+        List<Product> dogsFrom = catalogIndex.findProducts(priceFilter(List.of(PetType.DOG), "10.001", null));
+        List<Product> upTo = catalogIndex.findProducts(priceFilter(null, null, "12.499"));
+
+        // THEN
+        assertEquals(List.of(2L, 3L), ids(range));
+        assertEquals(List.of(3L, 4L), ids(dogsFrom));
+        assertEquals(List.of(1L), ids(upTo));
+    }
+
+    @Test
+    void findProducts_shouldKeepPriceOrder_whenProductsChange() {
+        // GIVEN
+        catalogIndex.rebuild(List.of(priced(dogCollar, "5.00"), priced(catCollar, "12.50"), priced(dogBow, "20.00")));
+
+        // WHEN
+        catalogIndex.upsert(priced(dogCollar, "15.00"));
+        catalogIndex.remove(2L);
+        catalogIndex.upsert(priced(product("Dog Bed").id(4L).size(SizeType.L).color("Grey").build(), "1.00"));
+
+        // THEN
+        assertEquals(List.of(1L, 3L), ids(catalogIndex.findProducts(priceFilter(null, "10", "25"))));
+        assertEquals(List.of(4L), ids(catalogIndex.findProducts(priceFilter(null, null, "9.99"))));
+    }
+
+    @Test
+    void getFacets_shouldCountEachAttributeWithoutItsOwnSelection() {
+        ProductFacetsDTO facets = catalogIndex.getFacets(filter(null, List.of(PetType.DOG), List.of("Red"), null));
+
+        assertEquals(1, facets.getTotal());
+        assertEquals(1L, facets.getPet().get(PetType.DOG));
+        assertEquals(1L, facets.getPet().get(PetType.CAT));
+        assertEquals(0L, facets.getPet().get(PetType.RODENTS));
+        assertEquals(1L, facets.getSize().get(SizeType.L));
+        assertEquals(0L, facets.getSize().get(SizeType.M));
+        assertEquals(1L, facets.getColor().get("Red"));
+        assertEquals(1L, facets.getColor().get("Yellow"));
+    }
+
+    @Test
+    void findProducts_shouldMatchEverySizeOfProductVariants() {
+        // GIVEN: the dog collar is also offered in XS and XL
+        dogCollar.setSizeMask(SizeType.maskOf(List.of(SizeType.XS, SizeType.XL)));
+        catalogIndex.onProductChanged(ProductChangedEvent.upserted(dogCollar));
+
+        // WHEN
+        ProductFacetsDTO facets = catalogIndex.getFacets(filter(null, List.of(PetType.DOG), null, null));
+
+        // THEN
+        assertEquals(List.of(1L), ids(catalogIndex.findProducts(filter(List.of(SizeType.XS), null, null, null))));
+        assertEquals(List.of(1L, 3L), ids(catalogIndex.findProducts(filter(List.of(SizeType.L, SizeType.XL), null, null, null))));
+        assertEquals(1L, facets.getSize().get(SizeType.M));
+        assertEquals(1L, facets.getSize().get(SizeType.XL));
+        assertEquals(2, facets.getTotal());
+    }
+
+    @Test
+    void onProductChanged_shouldReindexUpdatedProduct() {
+        // GIVEN
+        Product updated = product("Dog Collar").id(1L).size(SizeType.XL).color("Blue").build();
+
+        // WHEN
+        catalogIndex.onProductChanged(ProductChangedEvent.upserted(updated));
+
+        // THEN
+        assertTrue(catalogIndex.findProducts(filter(List.of(SizeType.M), null, null, null)).isEmpty());
+        assertEquals(List.of(1L), ids(catalogIndex.findProducts(filter(List.of(SizeType.XL), null, List.of("Blue"), null))));
+        assertEquals(3, catalogIndex.size());
+    }
+
+    @Test
+    void onProductChanged_shouldRemoveDeletedProductAndReuseSlot() {
+        // WHEN
+        catalogIndex.onProductChanged(ProductChangedEvent.deleted(2L));
+        catalogIndex.onProductChanged(ProductChangedEvent.upserted(
+                product("Cat Bed").id(4L).size(SizeType.S).pet(PetType.CAT).color("Grey").build()
+        ));
+
+        // THEN
+        assertEquals(List.of(4L), ids(catalogIndex.findProducts(filter(null, List.of(PetType.CAT), null, null))));
+        assertEquals(3, catalogIndex.size());
+    }
+
+    @Test
+    void onProductChanged_shouldReloadFromRepository_whenBulkChange() {
+        // GIVEN
+        Product imported = product("Cat Bed").id(4L).size(SizeType.S).pet(PetType.CAT).color("Grey").build();
+        given(productRepository.findAll()).willReturn(List.of(dogCollar, imported));
+
+        // WHEN
+        catalogIndex.onProductChanged(ProductChangedEvent.bulk());
+
+        // THEN
+        assertEquals(2, catalogIndex.size());
+        assertEquals(List.of(4L), ids(catalogIndex.findProducts(filter(null, List.of(PetType.CAT), null, null))));
+    }
+
+    private static Product priced(Product product, String price) {
+        return product.toBuilder().price(new BigDecimal(price)).build();
+    }
+
+    private static ProductFilterDTO priceFilter(List<PetType> pet, String minPrice, String maxPrice) {
+        return ProductFilterDTO.builder()
+                .pet(pet)
+                .minPrice(minPrice == null ? null : new BigDecimal(minPrice))
+                .maxPrice(maxPrice == null ? null : new BigDecimal(maxPrice))
+                .build();
+    }
+
+    private static ProductFilterDTO filter(List<SizeType> size, List<PetType> pet, List<String> color, String search) {
+        return ProductFilterDTO.builder()
+                .size(size)
+                .pet(pet)
+                .color(color)
+                .search(search)
+                .build();
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.backend.service;
+
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogSnapshotTest {
+
+    @TempDir
+    private Path dir;
+
+    private Path file;
+
+    private ProductCatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        file = dir.resolve("catalog/products.snapshot");
+        snapshot = new ProductCatalogSnapshot();
+        ReflectionTestUtils.setField(snapshot, "path", file.toString());
+    }
+
+    @Test
+    void read_shouldReturnWrittenProducts() {
+        // GIVEN
+        Product collar = product("Dog Collar")
+                .id(1L)
+                .sizeMask(SizeType.L.bit())
+                .pet(PetType.CAT)
+                .img("collar.png")
+                .price(new BigDecimal("15.99"))
+                .build();
+        Product bowl = product("Кошачья миска")
+                .id(2L)
+                .pet(PetType.CAT)
+                .color(null)
+                .img(null)
+                .price(new BigDecimal("7.5"))
+                .build();
+        snapshot.write(List.of(collar, bowl));
+
+        // WHEN
+        Optional<List<Product>> content = snapshot.read();
+
+        // THEN
+        assertTrue(content.isPresent());
+        List<Product> products = content.get();
+        assertEquals(2, products.size());
+        assertSameProduct(collar, products.get(0));
+        assertSameProduct(bowl, products.get(1));
+    }
+
+    @Test
+    void read_shouldReturnEmpty_whenFileMissing() {
+        assertTrue(snapshot.read().isEmpty());
+    }
+
+    @Test
+    void read_shouldReturnEmpty_whenFileCorrupt() throws IOException {
+        // GIVEN
+        snapshot.write(List.of(product("Dog Collar").id(1L).build()));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x7F;
+        Files.write(file, bytes);
+
+        // WHEN & THEN
+        assertTrue(snapshot.read().isEmpty());
+    }
+
+    @Test
+    void read_shouldReturnEmpty_whenFileTruncated() throws IOException {
+        // GIVEN
+        snapshot.write(List.of(product("Dog Collar").id(1L).build()));
+        Files.write(file, new byte[]{1, 2, 3});
+
+        // WHEN & THEN
+        assertTrue(snapshot.read().isEmpty());
+    }
+
+    @Test
+    void write_shouldDoNothing_whenDisabled() {
+        // GIVEN
+        ReflectionTestUtils.setField(snapshot, "path", "");
+
+        // WHEN
+        snapshot.write(List.of(product("Dog Collar").id(1L).build()));
+
+        // THEN
+        assertFalse(Files.exists(file));
+        assertTrue(snapshot.read().isEmpty());
+    }
+
+    private static void assertSameProduct(Product expected, Product actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getSizeMask(), actual.getSizeMask());
+        assertEquals(expected.getPet(), actual.getPet());
+        assertEquals(expected.getColor(), actual.getColor());
+        assertEquals(expected.getImg(), actual.getImg());
+        assertEquals(expected.getPrice(), actual.getPrice());
+    }
+}
@@ -0,0 +1,162 @@
+package com.backend.service;
+
+import com.backend.dto.ProductChangesDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.exception.InvalidRequestException;
+import com.backend.mapper.ProductMapper;
+import com.backend.model.Product;
+import com.backend.model.ProductChange;
+import com.backend.model.ProductChangeType;
+import com.backend.repository.ProductChangeRepository;
+import com.backend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeServiceTest {
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ProductChangeService productChangeService;
+
+    @Test
+    void record_shouldSaveUpsertAfterTakingChangeLock() {
+        // GIVEN
+        given(productChangeRepository.save(any(ProductChange.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        productChangeService.record(ProductChangedEvent.upserted(product("Dog Collar").id(5L).build()));
+
+        // THEN
+        ArgumentCaptor<ProductChange> saved = ArgumentCaptor.forClass(ProductChange.class);
+        then(jdbcTemplate).should().execute(anyString());
+        then(productChangeRepository).should().save(saved.capture());
+        assertEquals(5L, saved.getValue().getProductId());
+        assertEquals(ProductChangeType.UPSERT, saved.getValue().getChangeType());
+        assertNotNull(saved.getValue().getChangedAt());
+    }
+
+    @Test
+    void record_shouldSaveReset_whenBulkChange() {
+        // GIVEN
+        given(productChangeRepository.save(any(ProductChange.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        productChangeService.record(ProductChangedEvent.bulk());
+
+        // THEN
+        ArgumentCaptor<ProductChange> saved = ArgumentCaptor.forClass(ProductChange.class);
+        then(productChangeRepository).should().save(saved.capture());
+        assertNull(saved.getValue().getProductId());
+        assertEquals(ProductChangeType.RESET, saved.getValue().getChangeType());
+    }
+
+    @Test
+    void getChanges_shouldAttachCurrentProductsAndReportMore() {
+        // GIVEN
+        Product product = product("Dog Collar").id(5L).build();
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(5L);
+        given(productChangeRepository.findBySeqGreaterThanOrderBySeqAsc(10L, Limit.of(3))).willReturn(List.of(
+                change(11L, 5L, ProductChangeType.UPSERT),
+                change(12L, 6L, ProductChangeType.DELETE),
+                change(13L, 7L, ProductChangeType.UPSERT)
+        ));
+        given(productRepository.findAllById(Set.of(5L))).willReturn(List.of(product));
+        given(productMapper.toFilterDto(product)).willReturn(dto);
+
+        // WHEN
+        ProductChangesDTO result = productChangeService.getChanges(10L, 2);
+
+        // THEN
+        assertEquals(2, result.getChanges().size());
+        assertEquals(dto, result.getChanges().get(0).getProduct());
+        assertEquals(ProductChangeType.DELETE, result.getChanges().get(1).getType());
+        assertNull(result.getChanges().get(1).getProduct());
+        assertEquals(12L, result.getLastSeq());
+        assertTrue(result.isHasMore());
+    }
+
+    @Test
+    void getChanges_shouldKeepSince_whenNoChanges() {
+        // GIVEN
+        given(productChangeRepository.findBySeqGreaterThanOrderBySeqAsc(42L, Limit.of(501))).willReturn(List.of());
+
+        // WHEN
+        ProductChangesDTO result = productChangeService.getChanges(42L, 500);
+
+        // THEN
+        assertTrue(result.getChanges().isEmpty());
+        assertEquals(42L, result.getLastSeq());
+        assertFalse(result.isHasMore());
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getChanges_shouldThrowInvalidRequestException_whenArgumentsInvalid() {
+        assertThrows(InvalidRequestException.class, () -> productChangeService.getChanges(-1L, 10));
+        assertThrows(InvalidRequestException.class, () -> productChangeService.getChanges(0L, 0));
+        assertThrows(InvalidRequestException.class, () -> productChangeService.getChanges(0L, 1001));
+        then(productChangeRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void onProductChanged_shouldQueueOnePushOffTheCallingThread() {
+        // GIVEN
+        List<Runnable> queued = new ArrayList<>();
+        ReflectionTestUtils.setField(productChangeService, "pushExecutor", (Executor) queued::add);
+        productChangeService.subscribe(0L);
+
+        // WHEN
+        productChangeService.onProductChanged(ProductChangedEvent.deleted(5L));
+        productChangeService.onProductChanged(ProductChangedEvent.deleted(6L));
+
+        // THEN: nothing read on the caller, one push covers the replay and both changes
+        then(productChangeRepository).shouldHaveNoInteractions();
+        assertEquals(1, queued.size());
+
+        queued.get(0).run();
+        then(productChangeRepository).should().findBySeqGreaterThanOrderBySeqAsc(0L, Limit.of(1000));
+    }
+
+    private static ProductChange change(Long seq, Long productId, ProductChangeType type) {
+        return ProductChange.builder()
+                .seq(seq)
+                .productId(productId)
+                .changeType(type)
+                .changedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.backend.service;
+
+import com.backend.AbstractIntegrationTest;
+import com.backend.dto.OrderRequestDTO;
+import com.backend.dto.OrderResponseDTO;
+import com.backend.dto.ProductBulkUpdateDTO;
+import com.backend.dto.ProductEntityCacheStatsDTO;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.exception.ResourceNotFoundException;
+import com.backend.model.*;
+import com.backend.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level cache of Product against a real database.
+ *
+ * Not transactional like the controller tests: every service call commits on its own, as in
+ * production, because a cached product only becomes visible to transactions started after the
+ * one that cached it. Statement counts come from Hibernate statistics.
+ */
+class ProductEntityCacheIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductEntityCache productEntityCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentCardRepository paymentCardRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private User user;
+    private Product collar;
+    private Product bone;
+    private PaymentCard paymentCard;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        user = userRepository.save(
+                User.builder()
+                        .email("cache@mail.com")
+                        .password("password123")
+                        .firstName("John")
+                        .lastName("Doe")
+                        .build()
+        );
+        collar = productRepository.save(product("Cache Collar").price(BigDecimal.valueOf(20)).build());
+        bone = productRepository.save(product("Cache Bone").price(BigDecimal.valueOf(5)).build());
+        paymentCard = paymentCardRepository.save(
+                PaymentCard.builder()
+                        .userId(user.getId())
+                        .cardNumber("4111111111111111")
+                        .cardHolderName("John Doe")
+                        .expiryMonth(12)
+                        .expiryYear(2030)
+                        .lastFourDigits("1111")
+                        .isDefault(true)
+                        .build()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        paymentCardRepository.deleteAll();
+        // Retired products are invisible to the repository
+        jdbcTemplate.update("DELETE FROM products");
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void checkout_shouldSelectNoProducts_whenProductsCached() {
+        // GIVEN: nothing cached yet
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        // WHEN
+        checkout();
+        long coldStatements = statistics.getPrepareStatementCount();
+        long coldLoads = productLoads();
+
+        statistics.clear();
+        checkout();
+        long warmStatements = statistics.getPrepareStatementCount();
+        long warmLoads = productLoads();
+
+        // THEN: two addToCart calls and one findAllById in createOrder, all answered from the cache
+        assertEquals(2, coldLoads);
+        assertEquals(0, warmLoads);
+        assertEquals(coldStatements - coldLoads, warmStatements);
+        assertEquals(4, statistics.getCacheRegionStatistics(ProductEntityCache.REGION).getHitCount());
+    }
+
+    @Test
+    void createOrder_shouldSelectOnlyUncachedProducts() {
+        // GIVEN
+        cartService.addToCart(user.getId(), collar.getId(), 1, "M");
+        cartService.addToCart(user.getId(), bone.getId(), 1, "M");
+        entityManagerFactory.getCache().evict(Product.class, bone.getId());
+        statistics.clear();
+
+        // WHEN
+        OrderResponseDTO order = orderService.createOrder(user.getId(), orderRequest());
+
+        // THEN
+        assertEquals(0, BigDecimal.valueOf(25).compareTo(order.getTotalAmount()));
+        assertEquals(1, productLoads());
+        assertEquals(1, statistics.getCacheRegionStatistics(ProductEntityCache.REGION).getHitCount());
+    }
+
+    @Test
+    void updateProduct_shouldReplaceCachedCopy() {
+        // GIVEN
+        ProductResponseDTO cached = productService.getProductById(collar.getId());
+        cached.setPrice(BigDecimal.valueOf(30));
+
+        // WHEN
+        productService.updateProduct(collar.getId(), cached);
+
+        // THEN
+        statistics.clear();
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(productService.getProductById(collar.getId()).getPrice()));
+        assertEquals(0, productLoads());
+    }
+
+    @Test
+    void bulkUpdate_shouldEvictCachedProducts() {
+        // GIVEN
+        productService.getProductById(collar.getId());
+        ProductBulkUpdateDTO update = ProductBulkUpdateDTO.builder()
+                .filter(ProductFilterDTO.builder().pet(List.of(PetType.DOG)).build())
+                .price(BigDecimal.valueOf(15))
+                .build();
+
+        // WHEN
+        productService.bulkUpdate(update);
+
+        // THEN
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(productService.getProductById(collar.getId()).getPrice()));
+    }
+
+    @Test
+    void deleteProduct_shouldEvictCachedProduct() {
+        // GIVEN
+        productService.getProductById(collar.getId());
+
+        // WHEN
+        productService.deleteProduct(collar.getId());
+
+        // THEN
+        assertThrows(ResourceNotFoundException.class,
+                () -> cartService.addToCart(user.getId(), collar.getId(), 1, "M"));
+        assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(collar.getId()));
+    }
+
+    @Test
+    void stats_shouldReportHitsAndDatabaseLoads() {
+        // GIVEN
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        // WHEN
+        productService.getProductById(collar.getId());
+        productService.getProductById(collar.getId());
+
+        // THEN
+        ProductEntityCacheStatsDTO stats = productEntityCache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getDatabaseLoads());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    // Adds both products to the cart and places the order, each call in its own transaction
+    private void checkout() {
+        cartService.addToCart(user.getId(), collar.getId(), 1, "M");
+        cartService.addToCart(user.getId(), bone.getId(), 2, "M");
+        orderService.createOrder(user.getId(), orderRequest());
+    }
+
+    private OrderRequestDTO orderRequest() {
+        return OrderRequestDTO.builder()
+                .paymentCardId(paymentCard.getId())
+                .build();
+    }
+
+    private long productLoads() {
+        return statistics.getEntityStatistics(ProductEntityCache.REGION).getLoadCount();
+    }
+}
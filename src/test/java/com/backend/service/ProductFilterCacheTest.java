@@ -0,0 +1,146 @@
+package com.backend.service;
+
+import com.backend.dto.ProductFilterCacheStatsDTO;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFilterCacheTest {
+
+    private ProductFilterCache cache;
+
+    private final ProductFilterKey dogs = key(ProductFilterDTO.builder().pet(List.of(PetType.DOG)).build());
+    private final ProductFilterKey cats = key(ProductFilterDTO.builder().pet(List.of(PetType.CAT)).build());
+    private final ProductFilterKey collars = key(ProductFilterDTO.builder().search(" Collar").build());
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductFilterCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    }
+
+    @Test
+    void get_shouldCountHitsAndMisses() {
+        // GIVEN
+        cache.put(dogs, List.of(dto(1L)), cache.generation());
+
+        // WHEN
+        List<ProductResponseDTO> hit = cache.get(dogs);
+        List<ProductResponseDTO> miss = cache.get(cats);
+
+        // THEN
+        assertEquals(1, hit.size());
+        assertNull(miss);
+        ProductFilterCacheStatsDTO stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntry_whenFull() {
+        // GIVEN
+        long generation = cache.generation();
+        cache.put(dogs, List.of(dto(1L)), generation);
+        cache.put(cats, List.of(dto(2L)), generation);
+        cache.get(dogs);
+
+        // WHEN
+        cache.put(collars, List.of(dto(3L)), generation);
+
+        // THEN
+        assertNotNull(cache.get(dogs));
+        assertNull(cache.get(cats));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void put_shouldIgnoreResultComputedBeforeProductChange() {
+        // GIVEN
+        long generation = cache.generation();
+        cache.onProductChanged(ProductChangedEvent.deleted(5L));
+
+        // WHEN
+        cache.put(dogs, List.of(dto(1L)), generation);
+
+        // THEN
+        assertNull(cache.get(dogs));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void onProductChanged_shouldEvictOnlyEntriesContainingOrMatchingProduct() {
+        // GIVEN
+        long generation = cache.generation();
+        cache.put(dogs, List.of(dto(1L)), generation);
+        cache.put(cats, List.of(dto(2L)), generation);
+
+        // WHEN: a new dog product appears
+        cache.onProductChanged(ProductChangedEvent.upserted(product("Bone").id(3L).build()));
+
+        // THEN
+        assertNull(cache.get(dogs));
+        assertNotNull(cache.get(cats));
+        assertEquals(1, cache.stats().getInvalidations());
+    }
+
+    @Test
+    void onProductChanged_shouldEvictEntryContainingProduct_whenProductNoLongerMatches() {
+        // GIVEN
+        cache.put(cats, List.of(dto(2L)), cache.generation());
+
+        // WHEN: the cat product is changed into a dog product
+        cache.onProductChanged(ProductChangedEvent.upserted(product("Bowl").id(2L).build()));
+
+        // THEN
+        assertNull(cache.get(cats));
+    }
+
+    @Test
+    void onProductChanged_shouldClearEverything_whenBulkChange() {
+        // GIVEN
+        long generation = cache.generation();
+        cache.put(dogs, List.of(dto(1L)), generation);
+        cache.put(cats, List.of(dto(2L)), generation);
+
+        // WHEN
+        cache.onProductChanged(ProductChangedEvent.bulk());
+
+        // THEN
+        assertEquals(0, cache.stats().getSize());
+        assertEquals(2, cache.stats().getInvalidations());
+    }
+
+    @Test
+    void get_shouldAlwaysMiss_whenDisabled() {
+        // GIVEN
+        ReflectionTestUtils.setField(cache, "maxEntries", 0);
+
+        // WHEN
+        cache.put(dogs, List.of(dto(1L)), cache.generation());
+
+        // THEN
+        assertNull(cache.get(dogs));
+        assertEquals(0, cache.stats().getMisses());
+    }
+
+    private static ProductFilterKey key(ProductFilterDTO filter) {
+        return ProductFilterKey.of(filter, null, null);
+    }
+
+    private static ProductResponseDTO dto(Long id) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
@@ -0,0 +1,201 @@
+package com.backend.service;
+
+import com.backend.dto.ProductImportResultDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.exception.InvalidRequestException;
+import com.backend.model.ProductImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productImportService, "batchSize", 500);
+    }
+
+    @Test
+    void importProducts_shouldInsertValidNdjsonRowsAndReportInvalidOnes() {
+        // GIVEN
+        stubBatchInsert(1);
+        String ndjson = """
+                {"name":"Dog Toy","size":"M","pet":"DOG","color":"Red","price":19.99,"img":"dog.png"}
+                {"name":"Cat Bowl","size":"S","pet":"CAT","color":"Blue","price":-1,"img":"cat.png"}
+
+                {"name":"Hamster Cage","size":"L","pet":"RODENTS","color":"White","price":49.50,"img":"cage.png"}
+                {"name":"Broken"
+                """;
+
+        // WHEN
+        ProductImportResultDTO result = productImportService.importProducts(stream(ndjson), ProductImportFormat.NDJSON);
+
+        // THEN
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals("price must be greater than 0", result.getErrors().get(0).getMessage());
+        assertEquals(5, result.getErrors().get(1).getLine());
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("Malformed JSON"));
+        then(eventPublisher).should().publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void importProducts_shouldParseQuotedCsvValuesAndRejectUnknownEnums() {
+        // GIVEN
+        stubBatchInsert(1);
+        String csv = """
+                name,size,pet,color,price,img
+                "Toy, ""Deluxe"" edition",m,dog,Red,10.00,toy.png
+                Bed,XXL,DOG,Grey,30,bed.png
+                Ball,S,CAT,Blue,5
+                """;
+
+        // WHEN
+        ProductImportResultDTO result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        // THEN
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(3L, result.getErrors().get(0).getLine());
+        assertEquals("Unknown size 'XXL'", result.getErrors().get(0).getMessage());
+        assertEquals(4, result.getErrors().get(1).getLine());
+    }
+
+    @Test
+    void importProducts_shouldWriteInBatchesOfConfiguredSize() {
+        // GIVEN
+        ReflectionTestUtils.setField(productImportService, "batchSize", 2);
+        stubBatchInsert(1);
+        String csv = """
+                name,size,pet,color,price,img
+                A,S,DOG,Red,1,a.png
+                B,S,DOG,Red,1,b.png
+                C,S,DOG,Red,1,c.png
+                """;
+
+        // WHEN
+        ProductImportResultDTO result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        // THEN
+        assertEquals(3, result.getImported());
+        then(jdbcTemplate).should(times(2))
+                .batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        then(eventPublisher).should(times(1)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void importProducts_shouldReportExistingNames() {
+        // GIVEN
+        stubBatchInsert(0);
+        String csv = """
+                name,size,pet,color,price,img
+                Dog Toy,S,DOG,Red,1,a.png
+                """;
+
+        // WHEN
+        ProductImportResultDTO result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        // THEN
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("Product with name 'Dog Toy' already exists", result.getErrors().get(0).getMessage());
+        then(eventPublisher).should(never()).publishEvent(any());
+    }
+
+    @Test
+    void importProducts_shouldReportDuplicateNamesInFileFromConflicts() {
+        // GIVEN: the second Dog Toy conflicts with the first one inserted in the same batch
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        given(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .willReturn(new int[][]{{1, 0, 1}});
+        String csv = """
+                name,size,pet,color,price,img
+                Dog Toy,S,DOG,Red,1,a.png
+                Dog Toy ,S,DOG,Red,1,a.png
+                Cat Bowl,S,CAT,Blue,2,b.png
+                """;
+
+        // WHEN
+        ProductImportResultDTO result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        // THEN
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3L, result.getErrors().get(0).getLine());
+        assertEquals("Product with name 'Dog Toy' already exists", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void importProducts_shouldThrowInvalidRequest_whenCsvHeaderMissesColumn() {
+        InputStream csv = stream("name,size,pet,color,price\n");
+
+        assertThrows(InvalidRequestException.class,
+                () -> productImportService.importProducts(csv, ProductImportFormat.CSV));
+        then(jdbcTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void splitCsvLine_shouldReturnNull_whenQuoteNotTerminated() {
+        assertNull(ProductImportService.splitCsvLine("\"open,S,DOG"));
+        assertEquals(List.of("a", "", "b"), ProductImportService.splitCsvLine("a,,b"));
+    }
+
+    // Runs the transaction callback directly and answers every insert with the given update count
+    @SuppressWarnings("unchecked")
+    private void stubBatchInsert(int updateCount) {
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        given(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .willAnswer(invocation -> {
+                    int[] counts = new int[((List<?>) invocation.getArgument(1)).size()];
+                    Arrays.fill(counts, updateCount);
+                    return new int[][]{counts};
+                });
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,125 @@
+package com.backend.service;
+
+import com.backend.AbstractCatalogIndexIntegrationTest;
+import com.backend.dto.ProductBatchResponseDTO;
+import com.backend.dto.ProductResponseDTO;
+import com.backend.dto.ProductSuggestionDTO;
+import com.backend.event.OrderPlacedEvent;
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Catalog reads the in-memory indexes can answer must not open a transaction or run a statement,
+ * so they keep working while the connection pool is exhausted. Counts come from Hibernate statistics.
+ */
+class ProductInMemoryReadsIntegrationTest extends AbstractCatalogIndexIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRecommendationIndex recommendationIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Product dogToy;
+    private Product dogBed;
+    private Product catBowl;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Retired products are invisible to the repository
+        jdbcTemplate.update("DELETE FROM products");
+        dogToy = productRepository.save(product("Dog Toy").build());
+        dogBed = productRepository.save(product("Dog Bed").build());
+        catBowl = productRepository.save(product("Cat Bowl").pet(PetType.CAT).build());
+        // Saved past ProductService, so the catalog is told to reload
+        eventPublisher.publishEvent(ProductChangedEvent.bulk());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products");
+        eventPublisher.publishEvent(ProductChangedEvent.bulk());
+    }
+
+    @Test
+    void suggest_shouldNotTouchDatabase_whenIndexReady() {
+        // WHEN
+        List<ProductSuggestionDTO> suggestions = productService.suggest("toy", 5);
+
+        // THEN
+        assertEquals(List.of(dogToy.getId()), suggestions.stream().map(ProductSuggestionDTO::getId).toList());
+        assertNoDatabaseAccess();
+    }
+
+    @Test
+    void getProductsByIds_shouldNotTouchDatabase_whenIndexReady() {
+        // WHEN
+        ProductBatchResponseDTO batch = productService.getProductsByIds(List.of(dogToy.getId(), -1L));
+
+        // THEN
+        assertEquals(List.of(dogToy.getId()), batch.getProducts().stream().map(ProductResponseDTO::getId).toList());
+        assertEquals(List.of(-1L), batch.getMissingIds());
+        assertNoDatabaseAccess();
+    }
+
+    @Test
+    void getFrequentlyBoughtTogether_shouldNotTouchDatabase_whenIndexesReady() {
+        // GIVEN
+        recommendationIndex.onOrderPlaced(new OrderPlacedEvent(1L, Map.of(dogToy.getId(), 1, catBowl.getId(), 1)));
+
+        // WHEN
+        List<ProductResponseDTO> related = productService.getFrequentlyBoughtTogether(dogToy.getId(), 5);
+
+        // THEN
+        assertEquals(List.of(catBowl.getId()), related.stream().map(ProductResponseDTO::getId).toList());
+        assertNoDatabaseAccess();
+    }
+
+    @Test
+    void getSimilarProducts_shouldNotTouchDatabase_whenIndexesReady() {
+        // WHEN
+        List<ProductResponseDTO> similar = productService.getSimilarProducts(dogToy.getId(), 5);
+
+        // THEN
+        assertEquals(List.of(dogBed.getId()), similar.stream().map(ProductResponseDTO::getId).toList());
+        assertNoDatabaseAccess();
+    }
+
+    private void assertNoDatabaseAccess() {
+        assertEquals(0, statistics.getTransactionCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
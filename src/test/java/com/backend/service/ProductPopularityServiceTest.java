@@ -0,0 +1,87 @@
+package com.backend.service;
+
+import com.backend.event.OrderPlacedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPopularityServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ProductPopularityService popularityService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(popularityService, "halfLife", Duration.ofDays(30));
+    }
+
+    @Test
+    void weight_shouldDoubleEveryHalfLife() {
+        assertEquals(1.0, popularityService.weight(ProductPopularityService.EPOCH));
+        assertEquals(2.0, popularityService.weight(ProductPopularityService.EPOCH.plus(Duration.ofDays(30))), 1e-9);
+        assertEquals(8.0, popularityService.weight(ProductPopularityService.EPOCH.plus(Duration.ofDays(90))), 1e-9);
+    }
+
+    @Test
+    void onOrderPlaced_shouldIncrementScoresInProductIdOrder() {
+        // GIVEN: one half-life after the epoch every unit is worth 2
+        Clock clock = Clock.fixed(ProductPopularityService.EPOCH.plus(Duration.ofDays(30)), ZoneOffset.UTC);
+        ReflectionTestUtils.setField(popularityService, "clock", clock);
+        long versionBefore = popularityService.rankingVersion();
+
+        // WHEN
+        popularityService.onOrderPlaced(new OrderPlacedEvent(1L, Map.of(200L, 1, 100L, 3)));
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> increments = ArgumentCaptor.forClass(List.class);
+        then(jdbcTemplate).should().batchUpdate(anyString(), increments.capture());
+        assertEquals(2, increments.getValue().size());
+        assertEquals(100L, increments.getValue().get(0)[1]);
+        assertEquals(6.0, (double) increments.getValue().get(0)[0], 1e-9);
+        assertEquals(200L, increments.getValue().get(1)[1]);
+        assertEquals(2.0, (double) increments.getValue().get(1)[0], 1e-9);
+        assertTrue(popularityService.rankingVersion() > versionBefore);
+    }
+
+    @Test
+    void checkHalfLife_shouldFail_whenScoresWouldOverflowSoon() {
+        // GIVEN: 1000 one-day half-lives after the epoch, the weight is near 2^1000
+        Clock clock = Clock.fixed(ProductPopularityService.EPOCH.plus(Duration.ofDays(990)), ZoneOffset.UTC);
+        ReflectionTestUtils.setField(popularityService, "clock", clock);
+        ReflectionTestUtils.setField(popularityService, "halfLife", Duration.ofDays(1));
+
+        // WHEN & THEN
+        assertThrows(IllegalStateException.class, () -> popularityService.checkHalfLife());
+    }
+
+    @Test
+    void checkHalfLife_shouldPass_forDefaultHalfLife() {
+        Clock clock = Clock.fixed(ProductPopularityService.EPOCH.plus(Duration.ofDays(3650)), ZoneOffset.UTC);
+        ReflectionTestUtils.setField(popularityService, "clock", clock);
+
+        assertDoesNotThrow(() -> popularityService.checkHalfLife());
+        assertTrue(Double.isFinite(popularityService.weight(
+                ProductPopularityService.EPOCH.plus(Duration.ofDays(30).multipliedBy(ProductPopularityService.MAX_HALF_LIVES)))));
+    }
+}
@@ -0,0 +1,128 @@
+package com.backend.service;
+
+import com.backend.dto.ProductQueryCoalescingStatsDTO;
+import com.backend.event.ProductChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductQueryCoalescerTest {
+
+    private CatalogVersion catalogVersion;
+    private ProductQueryCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        coalescer = new ProductQueryCoalescer(catalogVersion);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldRunOneQueryForConcurrentIdenticalCalls() throws Exception {
+        // GIVEN: the first call blocks inside its query until seven more calls are waiting
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        List<Future<List<String>>> results = new ArrayList<>();
+
+        // WHEN
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> coalescer.execute("pet=DOG", () -> {
+                queries.incrementAndGet();
+                await(release);
+                return List.of("Dog Toy");
+            })));
+        }
+        waitUntil(() -> coalescer.stats().getCoalesced() == 7);
+        release.countDown();
+
+        // THEN
+        for (Future<List<String>> result : results) {
+            assertEquals(List.of("Dog Toy"), result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get());
+        ProductQueryCoalescingStatsDTO stats = coalescer.stats();
+        assertEquals(1, stats.getExecuted());
+        assertEquals(0.875, stats.getCoalescedRate(), 1e-9);
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    void execute_shouldHandLeaderFailureToWaitingCalls() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> leader = executor.submit(() -> coalescer.execute("pet=DOG", () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        waitUntil(() -> coalescer.stats().getInFlight() == 1);
+        Future<Object> follower = executor.submit(() -> coalescer.execute("pet=DOG", () -> "unused"));
+        waitUntil(() -> coalescer.stats().getCoalesced() == 1);
+
+        // WHEN
+        release.countDown();
+
+        // THEN
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+        assertEquals("fresh", coalescer.execute("pet=DOG", () -> "fresh"));
+    }
+
+    @Test
+    void execute_shouldNotJoinQueryStartedBeforeCatalogChange() throws Exception {
+        // GIVEN
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> before = executor.submit(() -> coalescer.execute("pet=DOG", () -> {
+            await(release);
+            return "before";
+        }));
+        waitUntil(() -> coalescer.stats().getInFlight() == 1);
+
+        // WHEN
+        catalogVersion.onProductChanged(ProductChangedEvent.deleted(1L));
+        String after = coalescer.execute("pet=DOG", () -> "after");
+        release.countDown();
+
+        // THEN
+        assertEquals("after", after);
+        assertEquals("before", before.get(5, TimeUnit.SECONDS));
+        assertEquals(0, coalescer.stats().getCoalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.backend.service;
+
+import com.backend.event.OrderPlacedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ProductRecommendationIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ProductRecommendationIndex recommendationIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(recommendationIndex, "enabled", true);
+        ReflectionTestUtils.setField(recommendationIndex, "chunkSize", 2);
+    }
+
+    @Test
+    void relatedProducts_shouldRankByOrdersInCommonThenById() {
+        // GIVEN
+        recommendationIndex.onOrderPlaced(order(1L, 10L, 20L, 30L));
+        recommendationIndex.onOrderPlaced(order(2L, 10L, 30L));
+        recommendationIndex.onOrderPlaced(order(3L, 10L, 40L));
+
+        // WHEN
+        List<Long> related = recommendationIndex.relatedProducts(10L, 2);
+
+        // THEN
+        assertEquals(List.of(30L, 20L), related);
+        assertEquals(List.of(10L, 20L), recommendationIndex.relatedProducts(30L, 5));
+    }
+
+    @Test
+    void relatedProducts_shouldBeEmpty_whenProductNeverOrderedWithOthers() {
+        recommendationIndex.onOrderPlaced(order(1L, 10L));
+
+        assertTrue(recommendationIndex.relatedProducts(10L, 5).isEmpty());
+        assertTrue(recommendationIndex.relatedProducts(99L, 5).isEmpty());
+    }
+
+    @Test
+    void relatedProducts_shouldKeepCountsForManyProducts() {
+        // GIVEN: enough co-ordered products to grow the hash maps several times
+        for (long id = 2; id <= 500; id++) {
+            recommendationIndex.onOrderPlaced(order(id, 1L, id));
+            if (id % 7 == 0) {
+                recommendationIndex.onOrderPlaced(order(1000 + id, 1L, id));
+            }
+        }
+
+        // WHEN
+        List<Long> related = recommendationIndex.relatedProducts(1L, 3);
+
+        // THEN
+        assertEquals(List.of(7L, 14L, 21L), related);
+    }
+
+    @Test
+    void rebuild_shouldCountWholeOrdersReadInChunks() {
+        // GIVEN: chunks of two orders each, order 1 has three items
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), eq(2)))
+                .willReturn(List.of(item(1, 10), item(1, 20), item(1, 30), item(2, 10), item(2, 30)));
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2L), eq(2)))
+                .willReturn(List.of(item(3, 20), item(3, 20), item(3, 40)));
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(3L), eq(2)))
+                .willReturn(List.of());
+
+        // WHEN
+        recommendationIndex.rebuild();
+
+        // THEN
+        assertEquals(List.of(30L, 20L), recommendationIndex.relatedProducts(10L, 5));
+        assertEquals(List.of(10L, 30L, 40L), recommendationIndex.relatedProducts(20L, 5));
+    }
+
+    @Test
+    void rebuild_shouldReplaceIncrementalCounts() {
+        // GIVEN
+        recommendationIndex.onOrderPlaced(order(1L, 10L, 20L));
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), eq(2)))
+                .willReturn(List.of(item(1, 10), item(1, 30)));
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(1L), eq(2)))
+                .willReturn(List.of());
+
+        // WHEN
+        recommendationIndex.rebuild();
+
+        // THEN
+        assertEquals(List.of(30L), recommendationIndex.relatedProducts(10L, 5));
+    }
+
+    private static OrderPlacedEvent order(Long orderId, Long... productIds) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            quantities.put(productId, 1);
+        }
+        return new OrderPlacedEvent(orderId, quantities);
+    }
+
+    private static long[] item(long orderId, long productId) {
+        return new long[]{orderId, productId};
+    }
+}
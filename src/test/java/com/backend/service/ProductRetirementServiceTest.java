@@ -0,0 +1,81 @@
+package com.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class ProductRetirementServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private ProductRetirementService retirementService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retirementService, "batchSize", 2);
+    }
+
+    @Test
+    void purgeRetiredProducts_shouldDeleteDependentsInBatchesBeforeProduct() {
+        // GIVEN: product 7 is in five carts, one wishlist and no comments
+        given(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2))).willReturn(List.of(7L));
+        given(jdbcTemplate.update(startsWith("DELETE FROM cart "), eq(7L), eq(2))).willReturn(2, 2, 1);
+        given(jdbcTemplate.update(startsWith("DELETE FROM wishlist "), eq(7L), eq(2))).willReturn(1);
+        given(jdbcTemplate.update(startsWith("DELETE FROM comments "), eq(7L), eq(2))).willReturn(0);
+        given(jdbcTemplate.update(startsWith("DELETE FROM products "), eq(7L))).willReturn(1);
+
+        // WHEN
+        int purged = retirementService.purgeRetiredProducts();
+
+        // THEN
+        assertEquals(1, purged);
+        then(jdbcTemplate).should(times(3)).update(startsWith("DELETE FROM cart "), eq(7L), eq(2));
+        then(jdbcTemplate).should().update(startsWith("DELETE FROM products "), eq(7L));
+    }
+
+    @Test
+    void purgeRetiredProducts_shouldKeepProductForNextRun_whenReferencedAgain() {
+        // GIVEN
+        given(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2))).willReturn(List.of(7L, 8L));
+        given(jdbcTemplate.update(startsWith("DELETE FROM products "), eq(7L)))
+                .willThrow(new DataIntegrityViolationException("fk_cart_product"));
+        given(jdbcTemplate.update(startsWith("DELETE FROM products "), eq(8L))).willReturn(1);
+
+        // WHEN
+        int purged = retirementService.purgeRetiredProducts();
+
+        // THEN
+        assertEquals(1, purged);
+    }
+
+    @Test
+    void scheduledPurge_shouldNotTouchDatabase_whenDisabled() {
+        // GIVEN
+        ReflectionTestUtils.setField(retirementService, "enabled", false);
+
+        // WHEN
+        retirementService.scheduledPurge();
+
+        // THEN
+        then(jdbcTemplate).shouldHaveNoInteractions();
+    }
+}
@@ -1,11 +1,23 @@
 package com.backend.service;
 
+import com.backend.dto.ProductBatchResponseDTO;
+import com.backend.dto.ProductBulkUpdateDTO;
+import com.backend.dto.ProductBulkUpdateResultDTO;
+import com.backend.dto.ProductFacetsDTO;
+import com.backend.dto.ProductFilterDTO;
+import com.backend.dto.ProductPageDTO;
 import com.backend.dto.ProductResponseDTO;
+import com.backend.dto.ProductSuggestionDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.exception.InvalidRequestException;
 import com.backend.exception.ResourceNotFoundException;
 import com.backend.mapper.ProductMapper;
 import com.backend.model.PetType;
 import com.backend.model.Product;
+import com.backend.model.ProductSort;
+import com.backend.model.SearchMode;
 import com.backend.model.SizeType;
+import com.backend.repository.ProductAttributeCount;
 import com.backend.repository.ProductRepository;
 import com.backend.specification.ProductSpecification;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,19 +26,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +66,30 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductCatalogIndex catalogIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductFilterCache filterCache;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
+    @Mock
+    private ProductRecommendationIndex recommendationIndex;
+
+    @Mock
+    private ProductSimilarityIndex similarityIndex;
+
+    @Spy
+    private ProductQueryCoalescer queryCoalescer = new ProductQueryCoalescer(new CatalogVersion());
+
+    @Mock
+    private CatalogHealth catalogHealth;
+
     @InjectMocks
     private ProductService productService;
 
@@ -46,6 +98,9 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Healthy database: reads run as they are
+        lenient().when(catalogHealth.timed(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
         product = Product.builder()
                 .id(1L)
                 .name("Dog Collar")
@@ -63,7 +118,8 @@ class ProductServiceTest {
                 PetType.DOG,
                 "Yellow",
                 new BigDecimal("15.99"),
-                "collar.png"
+                "collar.png",
+                List.of(SizeType.M)
         );
     }
 
@@ -255,6 +311,380 @@ class ProductServiceTest {
         then(productRepository).should().findAll(any(Specification.class));
     }
 
+    @Test
+    void findProducts_shouldUseCatalogIndex_whenIndexReady() {
+        // GIVEN
+        List<PetType> pets = List.of(PetType.DOG);
+        List<Product> products = List.of(product);
+        List<ProductResponseDTO> expectedDtos = List.of(productResponseDTO);
+
+        given(catalogIndex.isReady()).willReturn(true);
+        given(catalogIndex.findProducts(any(ProductFilterDTO.class))).willReturn(products);
+        given(productMapper.toFilterDtoList(products)).willReturn(expectedDtos);
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.findProducts(null, pets, null, null);
+
+        // THEN
+        assertEquals(expectedDtos, result);
+        then(productRepository).should(never()).findAll(any(Specification.class));
+    }
+
+    @Test
+    void findProducts_shouldSortNamesIgnoringCase_whenServedFromCatalogIndex() {
+        // GIVEN
+        Product collar = Product.builder().id(1L).name("collar").build();
+        Product bowl = Product.builder().id(2L).name("Bowl").build();
+        Product apron = Product.builder().id(3L).name("apron").build();
+        List<Product> products = new ArrayList<>(List.of(collar, bowl, apron));
+
+        given(catalogIndex.isReady()).willReturn(true);
+        given(catalogIndex.findProducts(any(ProductFilterDTO.class))).willReturn(products);
+        given(productMapper.toFilterDtoList(products)).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        productService.findProducts(new ProductFilterDTO(), ProductSort.NAME, Sort.Direction.ASC);
+
+        // THEN: the order the database collation gives, not upper case first
+        assertEquals(List.of(apron, bowl, collar), products);
+        then(productRepository).should(never()).findAll(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    void findProducts_shouldSortInDatabase_whenSortRequested() {
+        // GIVEN
+        List<Product> products = List.of(product);
+        given(productRepository.findAll(any(Specification.class), any(Sort.class))).willReturn(products);
+        given(productMapper.toFilterDtoList(products)).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.findProducts(
+                new ProductFilterDTO(), ProductSort.PRICE, Sort.Direction.DESC
+        );
+
+        // THEN
+        assertEquals(1, result.size());
+        then(productRepository).should().findAll(any(Specification.class), eq(
+                Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"))
+        ));
+    }
+
+    @Test
+    void findProducts_shouldQueryDatabase_whenSimilarSearchRequestedEvenIfIndexReady() {
+        // GIVEN
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .search("colar")
+                .searchMode(SearchMode.SIMILAR)
+                .build();
+        List<Product> products = List.of(product);
+
+        given(catalogIndex.isReady()).willReturn(true);
+        given(productRepository.findAll(any(Specification.class))).willReturn(products);
+        given(productMapper.toFilterDtoList(products)).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.findProducts(filter, ProductSort.RELEVANCE, null);
+
+        // THEN
+        assertEquals(1, result.size());
+        then(catalogIndex).should(never()).findProducts(any());
+    }
+
+    @Test
+    void findProducts_shouldAnswerFromCatalogIndex_whenDatabaseFails() {
+        // GIVEN: a SIMILAR search normally needs the database
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .search("collar")
+                .searchMode(SearchMode.SIMILAR)
+                .build();
+        List<Product> products = new ArrayList<>(List.of(product));
+
+        given(catalogIndex.isReady()).willReturn(true);
+        willThrow(new CannotCreateTransactionException("Connection is not available")).given(catalogHealth).timed(any());
+        given(catalogIndex.findProducts(filter)).willReturn(products);
+        given(productMapper.toFilterDtoList(products)).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.findProducts(filter, ProductSort.RELEVANCE, null);
+
+        // THEN
+        assertEquals(List.of(productResponseDTO), result);
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findProducts_shouldRethrowDatabaseFailure_whenIndexNotReady() {
+        // GIVEN
+        willThrow(new CannotCreateTransactionException("Connection is not available")).given(catalogHealth).timed(any());
+
+        // WHEN & THEN
+        assertThrows(CannotCreateTransactionException.class,
+                () -> productService.findProducts(new ProductFilterDTO(), null, null));
+        then(catalogIndex).should(never()).findProducts(any());
+    }
+
+    @Test
+    void findProducts_shouldIgnoreRelevanceSort_whenNoSearch() {
+        // GIVEN
+        given(productRepository.findAll(any(Specification.class))).willReturn(List.of(product));
+        given(productMapper.toFilterDtoList(List.of(product))).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        productService.findProducts(new ProductFilterDTO(), ProductSort.RELEVANCE, null);
+
+        // THEN
+        then(productRepository).should().findAll(any(Specification.class));
+        then(productRepository).should(never()).findAll(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    void findProducts_shouldSortByPopularityInDatabaseWithoutCache() {
+        // GIVEN
+        given(catalogIndex.isReady()).willReturn(true);
+        Sort popularity = Sort.by(Sort.Direction.DESC, "popularity").and(Sort.by(Sort.Direction.DESC, "id"));
+        given(productRepository.findAll(any(Specification.class), eq(popularity))).willReturn(List.of(product));
+        given(productMapper.toFilterDtoList(List.of(product))).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.findProducts(new ProductFilterDTO(), ProductSort.POPULARITY, Sort.Direction.DESC);
+
+        // THEN
+        assertEquals(List.of(productResponseDTO), result);
+        then(catalogIndex).should(never()).findProducts(any());
+        then(filterCache).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findProducts_shouldSelectDtoProjection_whenProjectionReadsEnabled() {
+        // GIVEN
+        ReflectionTestUtils.setField(productService, "projectionReads", true);
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .pet(List.of(PetType.DOG))
+                .build();
+        given(productRepository.findDtos(any(), eq(Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id")))))
+                .willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.findProducts(filter, ProductSort.PRICE, Sort.Direction.DESC);
+
+        // THEN
+        assertEquals(List.of(productResponseDTO), result);
+        then(productRepository).should(never()).findAll(any(Specification.class), any(Sort.class));
+        then(productMapper).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findProducts_shouldReturnCachedResult_whenFilterCached() {
+        // GIVEN
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .pet(List.of(PetType.DOG))
+                .build();
+        given(filterCache.get(ProductFilterKey.of(filter, null, Sort.Direction.ASC)))
+                .willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.findProducts(filter, null, null);
+
+        // THEN
+        assertEquals(List.of(productResponseDTO), result);
+        then(productRepository).shouldHaveNoInteractions();
+        then(catalogIndex).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findProducts_shouldCacheResultWithGenerationReadBeforeQuery() {
+        // GIVEN
+        given(filterCache.generation()).willReturn(7L);
+        given(productRepository.findAll(any(Specification.class))).willReturn(List.of(product));
+        given(productMapper.toFilterDtoList(List.of(product))).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        productService.findProducts(new ProductFilterDTO(), null, null);
+
+        // THEN
+        then(filterCache).should().put(any(ProductFilterKey.class), eq(List.of(productResponseDTO)), eq(7L));
+    }
+
+    @Test
+    void findProducts_shouldQueryThroughCoalescerWithCanonicalKey_whenNotCached() {
+        // GIVEN
+        ProductFilterDTO filter = ProductFilterDTO.builder().pet(List.of(PetType.DOG, PetType.DOG)).build();
+        given(productRepository.findAll(any(Specification.class))).willReturn(List.of(product));
+        given(productMapper.toFilterDtoList(List.of(product))).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        productService.findProducts(filter, null, null);
+
+        // THEN
+        ProductFilterKey key = ProductFilterKey.of(ProductFilterDTO.builder().pet(List.of(PetType.DOG)).build(),
+                null, Sort.Direction.ASC);
+        then(queryCoalescer).should().execute(eq(key), any());
+    }
+
+    @Test
+    void findProducts_shouldRejectPriceRange_whenMinGreaterThanMax() {
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .minPrice(new BigDecimal("20"))
+                .maxPrice(new BigDecimal("10"))
+                .build();
+
+        assertThrows(InvalidRequestException.class, () -> productService.findProducts(filter, null, null));
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void streamProducts_shouldPassEveryRowToSinkAndCloseStream() {
+        // GIVEN
+        AtomicBoolean closed = new AtomicBoolean();
+        given(productRepository.streamDtos(any(), eq(Sort.unsorted()), anyInt()))
+                .willReturn(Stream.of(productResponseDTO, productResponseDTO).onClose(() -> closed.set(true)));
+        List<ProductResponseDTO> received = new ArrayList<>();
+
+        // WHEN
+        productService.streamProducts(new ProductFilterDTO(), null, null, received::add);
+
+        // THEN
+        assertEquals(2, received.size());
+        assertTrue(closed.get());
+        then(productMapper).shouldHaveNoInteractions();
+    }
+
+    // SUGGEST TESTS
+
+    @Test
+    void suggest_shouldAnswerFromIndex_whenIndexReady() {
+        // GIVEN
+        List<ProductSuggestionDTO> suggestions = List.of(new ProductSuggestionDTO(1L, "Dog Collar"));
+        given(suggestIndex.isReady()).willReturn(true);
+        given(suggestIndex.suggest("dog", 5)).willReturn(suggestions);
+
+        // WHEN
+        List<ProductSuggestionDTO> result = productService.suggest("dog", 5);
+
+        // THEN
+        assertEquals(suggestions, result);
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void suggest_shouldRejectInvalidLimit() {
+        assertThrows(InvalidRequestException.class, () -> productService.suggest("dog", 21));
+        then(suggestIndex).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void suggest_shouldReturnEmptyList_whenPrefixBlank() {
+        assertTrue(productService.suggest(" ", 10).isEmpty());
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    // FACETS TESTS
+
+    @Test
+    void getFacets_shouldFoldGroupedCountsFromSingleQuery() {
+        // GIVEN
+        ProductFilterDTO filter = ProductFilterDTO.builder()
+                .pet(List.of(PetType.DOG))
+                .build();
+        given(productRepository.countByAttributes(any())).willReturn(List.of(
+                new ProductAttributeCount(SizeType.maskOf(List.of(SizeType.M, SizeType.L)), PetType.DOG, "Yellow", 2L),
+                new ProductAttributeCount(SizeType.S.bit(), PetType.CAT, "Red", 3L),
+                new ProductAttributeCount(SizeType.M.bit(), PetType.CAT, "Yellow", 1L)
+        ));
+
+        // WHEN
+        ProductFacetsDTO facets = productService.getFacets(filter);
+
+        // THEN
+        assertEquals(2, facets.getTotal());
+        assertEquals(2L, facets.getPet().get(PetType.DOG));
+        assertEquals(4L, facets.getPet().get(PetType.CAT));
+        assertEquals(0L, facets.getPet().get(PetType.RODENTS));
+        assertEquals(2L, facets.getSize().get(SizeType.M));
+        assertEquals(2L, facets.getSize().get(SizeType.L));
+        assertEquals(0L, facets.getSize().get(SizeType.S));
+        assertEquals(2L, facets.getColor().get("Yellow"));
+        assertNull(facets.getColor().get("Red"));
+        then(productRepository).should().countByAttributes(any());
+    }
+
+    // FIND PRODUCT PAGE TESTS
+
+    @Test
+    void findProductPage_shouldReturnNextCursor_whenMoreRowsExist() {
+        // GIVEN
+        Product second = product.toBuilder().id(2L).price(new BigDecimal("20.00")).build();
+        Product third = product.toBuilder().id(3L).price(new BigDecimal("25.00")).build();
+
+        given(productRepository.findBy(any(Specification.class), any())).willReturn(List.of(product, second, third));
+        given(productMapper.toFilterDtoList(List.of(product, second)))
+                .willReturn(List.of(productResponseDTO, productResponseDTO));
+
+        // WHEN
+        ProductPageDTO page = productService.findProductPage(
+                new ProductFilterDTO(), ProductSort.PRICE, Sort.Direction.ASC, 2, null, false
+        );
+
+        // THEN
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        assertNull(page.getTotalCount());
+        then(productRepository).should(never()).count(any(Specification.class));
+    }
+
+    @Test
+    void findProductPage_shouldReturnTotalAndNoCursor_whenLastPage() {
+        // GIVEN
+        given(productRepository.findBy(any(Specification.class), any())).willReturn(List.of(product));
+        given(productRepository.count(any(Specification.class))).willReturn(1L);
+        given(productMapper.toFilterDtoList(List.of(product))).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        ProductPageDTO page = productService.findProductPage(
+                new ProductFilterDTO(), null, null, 20, null, true
+        );
+
+        // THEN
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(1L, page.getTotalCount());
+    }
+
+    @Test
+    void findProductPage_shouldRejectCursorIssuedForAnotherSort() {
+        // GIVEN
+        given(productRepository.findBy(any(Specification.class), any())).willReturn(List.of(product, product));
+        given(productMapper.toFilterDtoList(anyList())).willReturn(List.of(productResponseDTO));
+        String priceCursor = productService.findProductPage(
+                new ProductFilterDTO(), ProductSort.PRICE, Sort.Direction.ASC, 1, null, false
+        ).getNextCursor();
+
+        // WHEN & THEN
+        assertThrows(
+                InvalidRequestException.class,
+                () -> productService.findProductPage(
+                        new ProductFilterDTO(), ProductSort.NAME, Sort.Direction.ASC, 1, priceCursor, false
+                )
+        );
+    }
+
+    @Test
+    void findProductPage_shouldRejectRelevanceSort() {
+        assertThrows(
+                InvalidRequestException.class,
+                () -> productService.findProductPage(new ProductFilterDTO(), ProductSort.RELEVANCE, null, 20, null, false)
+        );
+    }
+
+    @Test
+    void findProductPage_shouldRejectInvalidLimit() {
+        assertThrows(
+                InvalidRequestException.class,
+                () -> productService.findProductPage(new ProductFilterDTO(), null, null, 0, null, false)
+        );
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
     // GET PRODUCT BY ID TESTS
 
     @Test
@@ -298,6 +728,185 @@ class ProductServiceTest {
         then(productMapper).should(never()).toFilterDto(any());
     }
 
+    @Test
+    void getProductById_shouldLoadEntityById_whenProjectionReadsEnabled() {
+        // GIVEN: a load by id can be answered from the second-level cache, a projection cannot
+        ReflectionTestUtils.setField(productService, "projectionReads", true);
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(productMapper.toFilterDto(product)).willReturn(productResponseDTO);
+
+        // WHEN
+        ProductResponseDTO result = productService.getProductById(1L);
+
+        // THEN
+        assertEquals(productResponseDTO, result);
+        then(productRepository).should(never()).findDtos(any(), any());
+    }
+
+    @Test
+    void getProductById_shouldAnswerFromCatalogIndex_whenServingSnapshot() {
+        // GIVEN
+        given(catalogHealth.servesSnapshot()).willReturn(true);
+        given(catalogIndex.findByIds(List.of(1L))).willReturn(Map.of(1L, product));
+        given(productMapper.toFilterDto(product)).willReturn(productResponseDTO);
+
+        // WHEN
+        ProductResponseDTO result = productService.getProductById(1L);
+
+        // THEN
+        assertEquals(productResponseDTO, result);
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    // GET PRODUCTS BY IDS TESTS
+
+    @Test
+    void getProductsByIds_shouldQueryOnceAndKeepRequestOrder_whenIndexNotReady() {
+        // GIVEN
+        Product other = Product.builder().id(2L).name("Cat Bowl").build();
+        ProductResponseDTO otherDto = new ProductResponseDTO();
+        otherDto.setId(2L);
+        given(productRepository.findAllById(any())).willReturn(List.of(product, other));
+        given(productMapper.toFilterDto(product)).willReturn(productResponseDTO);
+        given(productMapper.toFilterDto(other)).willReturn(otherDto);
+
+        // WHEN
+        ProductBatchResponseDTO result = productService.getProductsByIds(List.of(2L, 7L, 1L, 2L));
+
+        // THEN
+        assertEquals(List.of(otherDto, productResponseDTO), result.getProducts());
+        assertEquals(List.of(7L), result.getMissingIds());
+        then(productRepository).should(times(1)).findAllById(Set.of(2L, 7L, 1L));
+        then(productRepository).should(never()).findById(any());
+    }
+
+    @Test
+    void getProductsByIds_shouldServeFromIndex_whenIndexReady() {
+        // GIVEN
+        given(catalogIndex.isReady()).willReturn(true);
+        given(catalogIndex.findByIds(any())).willReturn(Map.of(1L, product));
+        given(productMapper.toFilterDto(product)).willReturn(productResponseDTO);
+
+        // WHEN
+        ProductBatchResponseDTO result = productService.getProductsByIds(List.of(1L, 3L));
+
+        // THEN
+        assertEquals(List.of(productResponseDTO), result.getProducts());
+        assertEquals(List.of(3L), result.getMissingIds());
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getProductsByIds_shouldThrowInvalidRequestException_whenTooManyIds() {
+        // GIVEN
+        List<Long> ids = LongStream.rangeClosed(1, 201).boxed().toList();
+
+        // WHEN & THEN
+        assertThrows(InvalidRequestException.class, () -> productService.getProductsByIds(ids));
+        assertThrows(InvalidRequestException.class, () -> productService.getProductsByIds(List.of()));
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    // FREQUENTLY BOUGHT TOGETHER TESTS
+
+    @Test
+    void getFrequentlyBoughtTogether_shouldResolveRelatedIdsInRankOrder() {
+        // GIVEN
+        Product other = Product.builder().id(2L).name("Dog Bowl").build();
+        ProductResponseDTO otherDto = new ProductResponseDTO();
+        otherDto.setId(2L);
+        given(recommendationIndex.relatedProducts(5L, 10)).willReturn(List.of(2L, 1L));
+        given(catalogIndex.isReady()).willReturn(true);
+        given(catalogIndex.findByIds(any())).willReturn(Map.of(1L, product, 2L, other));
+        given(productMapper.toFilterDto(product)).willReturn(productResponseDTO);
+        given(productMapper.toFilterDto(other)).willReturn(otherDto);
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.getFrequentlyBoughtTogether(5L, 10);
+
+        // THEN
+        assertEquals(List.of(otherDto, productResponseDTO), result);
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getFrequentlyBoughtTogether_shouldReturnEmptyList_whenNothingRelated() {
+        // GIVEN
+        given(recommendationIndex.relatedProducts(5L, 10)).willReturn(List.of());
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.getFrequentlyBoughtTogether(5L, 10);
+
+        // THEN
+        assertTrue(result.isEmpty());
+        then(catalogIndex).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getFrequentlyBoughtTogether_shouldThrowInvalidRequestException_whenLimitInvalid() {
+        assertThrows(InvalidRequestException.class, () -> productService.getFrequentlyBoughtTogether(5L, 0));
+        assertThrows(InvalidRequestException.class, () -> productService.getFrequentlyBoughtTogether(5L, 21));
+        then(recommendationIndex).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getSimilarProducts_shouldResolveRankedIdsFromIndex() {
+        // GIVEN
+        Product other = Product.builder().id(2L).name("Dog Bowl").build();
+        ProductResponseDTO otherDto = new ProductResponseDTO();
+        otherDto.setId(2L);
+        given(similarityIndex.isReady()).willReturn(true);
+        given(similarityIndex.contains(5L)).willReturn(true);
+        given(similarityIndex.similarProducts(5L, 10)).willReturn(List.of(2L, 1L));
+        given(catalogIndex.isReady()).willReturn(true);
+        given(catalogIndex.findByIds(any())).willReturn(Map.of(1L, product, 2L, other));
+        given(productMapper.toFilterDto(product)).willReturn(productResponseDTO);
+        given(productMapper.toFilterDto(other)).willReturn(otherDto);
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.getSimilarProducts(5L, 10);
+
+        // THEN
+        assertEquals(List.of(otherDto, productResponseDTO), result);
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getSimilarProducts_shouldThrowResourceNotFoundException_whenProductNotIndexed() {
+        // GIVEN
+        given(similarityIndex.isReady()).willReturn(true);
+        given(similarityIndex.contains(99L)).willReturn(false);
+
+        // WHEN & THEN
+        assertThrows(ResourceNotFoundException.class, () -> productService.getSimilarProducts(99L, 10));
+        then(similarityIndex).should(never()).similarProducts(any(), anyInt());
+    }
+
+    @Test
+    void getSimilarProducts_shouldRankSamePetProductsFromDatabase_whenIndexNotReady() {
+        // GIVEN
+        Product other = Product.builder().id(2L).name("Dog Bowl").pet(PetType.DOG).build();
+        List<Product> candidates = List.of(product, other);
+        given(similarityIndex.isReady()).willReturn(false);
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(productRepository.findAll(any(Specification.class))).willReturn(candidates);
+        given(similarityIndex.rank(product, candidates, 5)).willReturn(List.of(2L));
+        given(productMapper.toFilterDtoList(List.of(other))).willReturn(List.of(productResponseDTO));
+
+        // WHEN
+        List<ProductResponseDTO> result = productService.getSimilarProducts(1L, 5);
+
+        // THEN
+        assertEquals(List.of(productResponseDTO), result);
+    }
+
+    @Test
+    void getSimilarProducts_shouldThrowInvalidRequestException_whenLimitInvalid() {
+        assertThrows(InvalidRequestException.class, () -> productService.getSimilarProducts(1L, 0));
+        assertThrows(InvalidRequestException.class, () -> productService.getSimilarProducts(1L, 21));
+        then(similarityIndex).shouldHaveNoInteractions();
+    }
+
     // CREATE PRODUCT TESTS
 
     @Test
@@ -310,7 +919,8 @@ class ProductServiceTest {
                 PetType.CAT,
                 "Red",
                 new BigDecimal("9.99"),
-                "toy.png"
+                "toy.png",
+                List.of(SizeType.S)
         );
 
         Product newProduct = Product.builder()
@@ -339,7 +949,8 @@ class ProductServiceTest {
                 PetType.CAT,
                 "Red",
                 new BigDecimal("9.99"),
-                "toy.png"
+                "toy.png",
+                List.of(SizeType.S)
         );
 
         given(productMapper.toEntity(newProductDto))
@@ -362,6 +973,7 @@ class ProductServiceTest {
         then(productMapper).should().toEntity(newProductDto);
         then(productRepository).should().save(newProduct);
         then(productMapper).should().toFilterDto(savedProduct);
+        then(eventPublisher).should().publishEvent(any(ProductChangedEvent.class));
     }
 
     // UPDATE PRODUCT TESTS
@@ -377,7 +989,8 @@ class ProductServiceTest {
                 PetType.DOG,
                 "Blue",
                 new BigDecimal("19.99"),
-                "new-collar.png"
+                "new-collar.png",
+                List.of(SizeType.L)
         );
 
         given(productRepository.findById(productId))
@@ -409,7 +1022,8 @@ class ProductServiceTest {
                 PetType.DOG,
                 "Red",
                 new BigDecimal("25.99"),
-                "image.png"
+                "image.png",
+                List.of(SizeType.M)
         );
 
         given(productRepository.findById(productId))
@@ -428,30 +1042,84 @@ class ProductServiceTest {
         then(productMapper).should(never()).toFilterDto(any());
     }
 
+    // BULK UPDATE TESTS
+
+    @Test
+    void bulkUpdate_shouldRunOneUpdateAndPublishOneBulkEvent() {
+        // GIVEN
+        ProductBulkUpdateDTO update = ProductBulkUpdateDTO.builder()
+                .filter(ProductFilterDTO.builder().pet(List.of(PetType.DOG)).build())
+                .priceMultiplier(new BigDecimal("1.10"))
+                .build();
+        given(productRepository.updateMatching(any(), eq(new BigDecimal("1.10")), isNull(), isNull())).willReturn(42);
+
+        // WHEN
+        ProductBulkUpdateResultDTO result = productService.bulkUpdate(update);
+
+        // THEN
+        assertEquals(42, result.getUpdated());
+        then(eventPublisher).should().publishEvent(argThat((ProductChangedEvent event) ->
+                event.getType() == ProductChangedEvent.ChangeType.BULK));
+        then(productRepository).should(never()).findById(any());
+    }
+
+    @Test
+    void bulkUpdate_shouldNotPublishEvent_whenNothingMatched() {
+        // GIVEN
+        ProductBulkUpdateDTO update = ProductBulkUpdateDTO.builder()
+                .filter(new ProductFilterDTO())
+                .color("Green")
+                .build();
+        given(productRepository.updateMatching(any(), isNull(), isNull(), eq("Green"))).willReturn(0);
+
+        // WHEN
+        ProductBulkUpdateResultDTO result = productService.bulkUpdate(update);
+
+        // THEN
+        assertEquals(0, result.getUpdated());
+        then(eventPublisher).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void bulkUpdate_shouldThrowInvalidRequestException_whenChangeMissingOrConflicting() {
+        ProductFilterDTO filter = new ProductFilterDTO();
+
+        assertThrows(InvalidRequestException.class, () -> productService.bulkUpdate(
+                ProductBulkUpdateDTO.builder().filter(filter).build()));
+        assertThrows(InvalidRequestException.class, () -> productService.bulkUpdate(
+                ProductBulkUpdateDTO.builder().color("Red").build()));
+        assertThrows(InvalidRequestException.class, () -> productService.bulkUpdate(
+                ProductBulkUpdateDTO.builder().filter(filter).priceMultiplier(BigDecimal.ONE).price(BigDecimal.TEN).build()));
+        assertThrows(InvalidRequestException.class, () -> productService.bulkUpdate(
+                ProductBulkUpdateDTO.builder().filter(filter).priceMultiplier(BigDecimal.ZERO).build()));
+        then(productRepository).shouldHaveNoInteractions();
+    }
+
     // DELETE PRODUCT TESTS
 
     @Test
-    void deleteProduct_shouldDeleteProductSuccessfully() {
+    void deleteProduct_shouldRetireProductAndPublishDeletion() {
         // GIVEN
         Long productId = 1L;
-        given(productRepository.existsById(productId))
-                .willReturn(true);
-        doNothing().when(productRepository).deleteById(productId);
+        given(productRepository.retire(eq(productId), any(LocalDateTime.class)))
+                .willReturn(1);
 
         // WHEN
         assertDoesNotThrow(() -> productService.deleteProduct(productId));
 
         // THEN
-        then(productRepository).should().existsById(productId);
-        then(productRepository).should().deleteById(productId);
+        then(productRepository).should().retire(eq(productId), any(LocalDateTime.class));
+        then(productRepository).should(never()).deleteById(anyLong());
+        then(eventPublisher).should().publishEvent(argThat((ProductChangedEvent event) ->
+                event.getType() == ProductChangedEvent.ChangeType.DELETED && productId.equals(event.getProductId())));
     }
 
     @Test
     void deleteProduct_shouldThrowResourceNotFoundException_whenProductNotFound() {
         // GIVEN
         Long productId = 999L;
-        given(productRepository.existsById(productId))
-                .willReturn(false);
+        given(productRepository.retire(eq(productId), any(LocalDateTime.class)))
+                .willReturn(0);
 
         // WHEN & THEN
         ResourceNotFoundException exception = assertThrows(
@@ -461,7 +1129,7 @@ class ProductServiceTest {
 
         assertEquals("Product with id 999 not found", exception.getMessage());
 
-        then(productRepository).should().existsById(productId);
-        then(productRepository).should(never()).deleteById(anyLong());
+        then(productRepository).should().retire(eq(productId), any(LocalDateTime.class));
+        then(eventPublisher).shouldHaveNoInteractions();
     }
 }
@@ -0,0 +1,146 @@
+package com.backend.service;
+
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.PetType;
+import com.backend.model.Product;
+import com.backend.model.SizeType;
+import com.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSimilarityIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSimilarityIndex similarityIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(similarityIndex, "enabled", true);
+        similarityIndex.rebuild(List.of(
+                product("Product 1").id(1L).price(new BigDecimal("20.00")).build(),
+                product("Product 2").id(2L).price(new BigDecimal("22.00")).build(),
+                product("Product 3").id(3L).size(SizeType.L).price(new BigDecimal("20.00")).build(),
+                product("Product 4").id(4L).size(SizeType.XL).color("Blue").price(new BigDecimal("90.00")).build(),
+                product("Product 5").id(5L).pet(PetType.CAT).price(new BigDecimal("20.00")).build()
+        ));
+    }
+
+    @Test
+    void similarProducts_shouldRankSamePetBySizeColorAndPrice() {
+        // WHEN
+        List<Long> similar = similarityIndex.similarProducts(1L, 10);
+
+        // THEN: the cat product is never a candidate
+        assertEquals(List.of(2L, 3L, 4L), similar);
+    }
+
+    @Test
+    void similarProducts_shouldKeepOnlyTheBest_whenLimited() {
+        // GIVEN: many equally similar products, ties broken by id
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            products.add(product("Product " + id).id(id).price(new BigDecimal(id == 150 ? "10.00" : "50.00")).build());
+        }
+        products.add(product("Product 201").id(201L).price(new BigDecimal("10.00")).build());
+        similarityIndex.rebuild(products);
+
+        // WHEN
+        List<Long> similar = similarityIndex.similarProducts(201L, 3);
+
+        // THEN
+        assertEquals(List.of(150L, 1L, 2L), similar);
+    }
+
+    @Test
+    void similarProducts_shouldBeEmpty_whenProductNotIndexed() {
+        assertTrue(similarityIndex.similarProducts(99L, 10).isEmpty());
+        assertFalse(similarityIndex.contains(99L));
+    }
+
+    @Test
+    void onProductChanged_shouldInsertReplaceAndRemoveFeatures() {
+        // WHEN
+        similarityIndex.onProductChanged(ProductChangedEvent.upserted(
+                product("Product 6").id(6L).price(new BigDecimal("20.00")).build()));
+        similarityIndex.onProductChanged(ProductChangedEvent.upserted(
+                product("Product 2").id(2L).pet(PetType.CAT).price(new BigDecimal("22.00")).build()));
+        similarityIndex.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        // THEN
+        assertEquals(5, similarityIndex.size());
+        assertEquals(List.of(6L, 4L), similarityIndex.similarProducts(1L, 10));
+        assertEquals(List.of(5L), similarityIndex.similarProducts(2L, 10));
+    }
+
+    @Test
+    void rank_shouldMatchIndexRanking() {
+        // GIVEN
+        List<Product> candidates = List.of(
+                product("Product 1").id(1L).price(new BigDecimal("20.00")).build(),
+                product("Product 2").id(2L).price(new BigDecimal("22.00")).build(),
+                product("Product 3").id(3L).size(SizeType.L).price(new BigDecimal("20.00")).build(),
+                product("Product 4").id(4L).size(SizeType.XL).color("Blue").price(new BigDecimal("90.00")).build()
+        );
+
+        // WHEN
+        List<Long> ranked = similarityIndex.rank(candidates.get(0), candidates, 10);
+
+        // THEN
+        assertEquals(similarityIndex.similarProducts(1L, 10), ranked);
+    }
+
+    @Test
+    void similarProducts_shouldScoreClosestOfferedSize() {
+        // GIVEN: product 4 is also offered in L, the size of product 3
+        Product wideRange = product("Product 4").id(4L).size(SizeType.XL).price(new BigDecimal("20.00")).build();
+        wideRange.setSizeMask(SizeType.maskOf(List.of(SizeType.S, SizeType.M, SizeType.L)));
+        similarityIndex.onProductChanged(ProductChangedEvent.upserted(wideRange));
+
+        // WHEN
+        List<Long> similar = similarityIndex.similarProducts(3L, 10);
+
+        // THEN: ranks like a same-size product instead of a neighbouring one
+        assertEquals(List.of(4L, 1L, 2L), similar);
+        List<Product> candidates = List.of(
+                product("Product 1").id(1L).price(new BigDecimal("20.00")).build(),
+                product("Product 2").id(2L).price(new BigDecimal("22.00")).build(),
+                wideRange
+        );
+        Product sizeL = product("Product 3").id(3L).size(SizeType.L).price(new BigDecimal("20.00")).build();
+        assertEquals(similar, similarityIndex.rank(sizeL, candidates, 10));
+    }
+
+    @Test
+    void sizeDistance_shouldCompareClosestOfferedSizes() {
+        int small = SizeType.maskOf(List.of(SizeType.XS, SizeType.S));
+        assertEquals(0, ProductSimilarityIndex.sizeDistance(small, SizeType.S.bit()));
+        assertEquals(1, ProductSimilarityIndex.sizeDistance(small, SizeType.maskOf(List.of(SizeType.M, SizeType.XL))));
+        assertEquals(3, ProductSimilarityIndex.sizeDistance(SizeType.XL.bit(), small));
+        assertEquals(SizeType.values().length, ProductSimilarityIndex.sizeDistance(0, small));
+    }
+
+    @Test
+    void score_shouldFallWithSizeDistanceAndRelativePriceDifference() {
+        assertEquals(7.0, ProductSimilarityIndex.score(0, true, 1000, 1000), 1e-9);
+        assertEquals(1.5 + 2.0, ProductSimilarityIndex.score(1, false, 1000, 1000), 1e-9);
+        assertEquals(ProductSimilarityIndex.score(2, false, 1000, 1200),
+                ProductSimilarityIndex.score(2, false, 10000, 12000), 1e-9);
+        assertEquals(0.0, ProductSimilarityIndex.score(3, false, 0, 1000), 1e-9);
+    }
+}
@@ -0,0 +1,98 @@
+package com.backend.service;
+
+import com.backend.dto.ProductSuggestionDTO;
+import com.backend.event.ProductChangedEvent;
+import com.backend.model.Product;
+import com.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static com.backend.ProductFixtures.product;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(suggestIndex, "enabled", true);
+        suggestIndex.rebuild(List.of(
+                product("Dog Toy").id(1L).build(),
+                product("Dog Bed").id(2L).build(),
+                product("Toy Mouse").id(3L).build(),
+                product("Cat-Tower Deluxe").id(4L).build()
+        ));
+    }
+
+    @Test
+    void suggest_shouldCompleteFullNamesAndWordStarts() {
+        assertEquals(List.of("Dog Bed", "Dog Toy"), names(suggestIndex.suggest("DO", 10)));
+        assertEquals(List.of("Dog Toy", "Toy Mouse"), names(suggestIndex.suggest("toy", 10)));
+        assertEquals(List.of("Cat-Tower Deluxe"), names(suggestIndex.suggest("tow", 10)));
+    }
+
+    @Test
+    void suggest_shouldReturnEachProductOnceAndRespectLimit() {
+        suggestIndex.rebuild(List.of(product("Toy toy toy").id(1L).build(), product("Toy Ball").id(2L).build()));
+
+        assertEquals(List.of("Toy toy toy", "Toy Ball"), names(suggestIndex.suggest("toy", 10)));
+        assertEquals(1, suggestIndex.suggest("toy", 1).size());
+    }
+
+    @Test
+    void suggest_shouldReturnEmptyList_whenPrefixBlankOrUnknown() {
+        assertTrue(suggestIndex.suggest("  ", 10).isEmpty());
+        assertTrue(suggestIndex.suggest("zebra", 10).isEmpty());
+    }
+
+    @Test
+    void onProductChanged_shouldReplaceKeysOfRenamedProduct() {
+        // WHEN
+        suggestIndex.onProductChanged(ProductChangedEvent.upserted(product("Puppy Toy").id(1L).build()));
+
+        // THEN
+        assertEquals(List.of("Dog Bed"), names(suggestIndex.suggest("dog", 10)));
+        assertEquals(List.of("Puppy Toy"), names(suggestIndex.suggest("pup", 10)));
+        assertEquals(List.of("Puppy Toy", "Toy Mouse"), names(suggestIndex.suggest("toy", 10)));
+    }
+
+    @Test
+    void onProductChanged_shouldRemoveDeletedProduct() {
+        // WHEN
+        suggestIndex.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        // THEN
+        assertEquals(List.of("Dog Toy"), names(suggestIndex.suggest("toy", 10)));
+    }
+
+    @Test
+    void onProductChanged_shouldReloadFromRepository_whenBulkChange() {
+        // GIVEN
+        given(productRepository.findAll()).willReturn(List.of(product("Hamster Wheel").id(9L).build()));
+
+        // WHEN
+        suggestIndex.onProductChanged(ProductChangedEvent.bulk());
+
+        // THEN
+        assertTrue(suggestIndex.suggest("dog", 10).isEmpty());
+        assertEquals(List.of(9L), suggestIndex.suggest("wheel", 10).stream().map(ProductSuggestionDTO::getId).toList());
+    }
+
+    private static List<String> names(List<ProductSuggestionDTO> suggestions) {
+        return suggestions.stream().map(ProductSuggestionDTO::getName).toList();
+    }
+}